@@ -0,0 +1,73 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.ApiError;
+import com.ketoru.springframework.errors.ApiErrorException;
+import com.ketoru.springframework.errors.ApiErrorTemplate;
+import com.ketoru.springframework.errors.ApiErrorTemplates;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Cost of creating an {@link ApiErrorException} through the {@link ApiError} builder versus a pre-built
+ * {@link ApiErrorTemplate}. Exceptions are stackless so the numbers isolate the allocations, run with {@code -prof gc}
+ * to see {@code gc.alloc.rate.norm} (bytes per throw).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiErrorTemplateBenchmark {
+
+    private ApiErrorTemplate orderNotFound;
+
+    @Setup
+    public void setup() {
+        ApiErrorException.setWritableStackTraceByDefault(false);
+        orderNotFound = ApiErrorTemplates.register("ORDER_NOT_FOUND", ApiError.status(NOT_FOUND)
+                .title("Order not found")
+                .type("https://example.com/errors/order-not-found")
+                .template("The requested order does not exist"));
+    }
+
+    @Benchmark
+    public ApiErrorException builder() {
+        return ApiError.status(NOT_FOUND)
+                .title("Order not found")
+                .type("https://example.com/errors/order-not-found")
+                .detail("The requested order does not exist");
+    }
+
+    @Benchmark
+    public ApiErrorException builderWithExtension() {
+        return ApiError.status(NOT_FOUND)
+                .title("Order not found")
+                .type("https://example.com/errors/order-not-found")
+                .extension("orderId", "42")
+                .detail("The requested order does not exist");
+    }
+
+    @Benchmark
+    public ApiErrorException template() {
+        return orderNotFound.exception();
+    }
+
+    @Benchmark
+    public ApiErrorException templateWithExtension() {
+        return orderNotFound.extension("orderId", "42");
+    }
+
+    @Benchmark
+    public ApiErrorException templateWithDetail() {
+        return orderNotFound.detail("Order 42 does not exist");
+    }
+
+    @Benchmark
+    public ApiErrorException staticFactory() {
+        return ApiError.notFound();
+    }
+}
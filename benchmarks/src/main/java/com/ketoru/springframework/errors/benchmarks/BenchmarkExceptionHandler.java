@@ -0,0 +1,29 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.DefaultExceptionHandler;
+import com.ketoru.springframework.errors.ErrorsConfiguration;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Concrete handler used by the benchmarks, configured the way {@link ErrorsConfiguration} would.
+ */
+public class BenchmarkExceptionHandler extends DefaultExceptionHandler {
+
+    public BenchmarkExceptionHandler(ErrorsProperties properties) {
+        setMessageSource(ErrorsConfiguration.messageSource(properties));
+        setErrorsConfiguration(properties);
+    }
+
+    /**
+     * Public for the benchmarks, which are not in the package of the handler.
+     */
+    @Override
+    public ResponseEntity<Object> createDefaultResponseEntity(Exception ex, HttpHeaders headers, HttpStatusCode statusCode, String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, WebRequest request) {
+        return super.createDefaultResponseEntity(ex, headers, statusCode, defaultDetail, detailMessageCode, detailMessageArguments, request);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.throttle.ClientErrorThrottle;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ClientErrorThrottle}: recording an error for one of 1000 clients, added to the handled errors, and the
+ * lookup of the filter, added to every request. Four threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ClientErrorThrottleBenchmark {
+
+    private String[] clients;
+    private ClientErrorThrottle throttle;
+
+    @Setup
+    public void setup() {
+        clients = new String[1000];
+        for (var i = 0; i < clients.length; i++) clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        var properties = new ErrorsProperties.ClientThrottle();
+        properties.setThreshold(Integer.MAX_VALUE);
+        throttle = new ClientErrorThrottle(properties, request -> null);
+    }
+
+    @Benchmark
+    public boolean record() {
+        return throttle.record(client());
+    }
+
+    @Benchmark
+    public Duration retryAfter() {
+        return throttle.getRetryAfter(client());
+    }
+
+    private String client() {
+        return clients[ThreadLocalRandom.current().nextInt(clients.length)];
+    }
+}
@@ -0,0 +1,69 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.i18n.ConstraintMessageResolver;
+import com.ketoru.springframework.errors.i18n.ErrorMessageCatalog;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.MessageInterpolator;
+import jakarta.validation.ValidationException;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import org.hibernate.validator.messageinterpolation.ResourceBundleMessageInterpolator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages of 1000 violations in the request locale: interpolated again by Hibernate Validator for the locale, against
+ * the cached {@link ConstraintMessageResolver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstraintMessageBenchmark {
+
+    private static final Locale LOCALE = Locale.forLanguageTag("es");
+
+    private ConstraintViolation<?>[] violations;
+    private MessageInterpolator interpolator;
+    private ConstraintMessageResolver resolver;
+
+    @Setup
+    public void setup() {
+        violations = ValidationPayloads.violations(1000).getConstraintViolations().toArray(ConstraintViolation<?>[]::new);
+        interpolator = new ResourceBundleMessageInterpolator();
+        resolver = new ConstraintMessageResolver(new ErrorsProperties.ConstraintMessages(), ErrorMessageCatalog.load("lang/error-messages"));
+    }
+
+    @Benchmark
+    public void interpolate(Blackhole blackhole) {
+        for (var violation : violations) blackhole.consume(interpolator.interpolate(violation.getMessageTemplate(), new Context(violation), LOCALE));
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        for (var violation : violations) blackhole.consume(resolver.resolve(violation, LOCALE));
+    }
+
+    private record Context(ConstraintViolation<?> violation) implements MessageInterpolator.Context {
+
+        @Override
+        public ConstraintDescriptor<?> getConstraintDescriptor() {
+            return violation.getConstraintDescriptor();
+        }
+
+        @Override
+        public Object getValidatedValue() {
+            return violation.getInvalidValue();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            throw new ValidationException("Cannot unwrap " + type);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ketoru.springframework.errors.ApiError;
+import com.ketoru.springframework.errors.ApiErrorException;
+import com.ketoru.springframework.errors.DefaultExceptionHandler;
+import com.ketoru.springframework.errors.OverloadResponses;
+import com.ketoru.springframework.errors.StaticProblemResponses;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import jakarta.validation.ConstraintViolationException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+/**
+ * The {@link DefaultExceptionHandler} paths taken by a failed request, from the handler method to the serialized
+ * {@code application/problem+json} body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultExceptionHandlerBenchmark {
+
+    private BenchmarkExceptionHandler handler;
+    private BenchmarkExceptionHandler staticResponsesHandler;
+    private OverloadResponses overloadResponses;
+    private ObjectMapper objectMapper;
+    private WebRequest request;
+    private ApiErrorException apiErrorException;
+    private BadCredentialsException badCredentialsException;
+    private IllegalStateException nestedException;
+    private CompletionException wrappedBadCredentialsException;
+
+    @Setup
+    public void setup() {
+        handler = new BenchmarkExceptionHandler(new ErrorsProperties());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        staticResponsesHandler = new BenchmarkExceptionHandler(new ErrorsProperties());
+        staticResponsesHandler.setStaticProblemResponses(new StaticProblemResponses(objectMapper, 1024));
+        overloadResponses = new OverloadResponses(new ErrorsProperties.Overload(), objectMapper);
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/orders/42"), new MockHttpServletResponse());
+        apiErrorException = ApiError.status(404).title("Order not found").type("https://example.com/errors/order-not-found").detail("Order 42 does not exist");
+        badCredentialsException = new BadCredentialsException("Bad credentials");
+        nestedException = new IllegalStateException("outer", new IllegalArgumentException("inner", new RuntimeException("root")));
+        wrappedBadCredentialsException = new CompletionException(new UndeclaredThrowableException(badCredentialsException));
+    }
+
+    @Benchmark
+    public ApiErrorException apiErrorBuilder() {
+        return ApiError.status(404).title("Order not found").type("https://example.com/errors/order-not-found").detail("Order 42 does not exist");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleApiErrorException() {
+        return handler.handleApiErrorException(apiErrorException, request);
+    }
+
+    /**
+     * A template error from throw to response, the handler copies the read only canonical body.
+     */
+    @Benchmark
+    public ResponseEntity<?> handleTemplateApiErrorException() {
+        return handler.handleApiErrorException(ApiError.notFound(), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> handleConstraintViolationException(Violations violations) {
+        return handler.handleConstraintViolationException(violations.exception, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> createDefaultResponseEntity(Locales locales) {
+        return handler.createDefaultResponseEntity(badCredentialsException, new HttpHeaders(), UNAUTHORIZED, "Invalid username or password.", null, null, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> unwrapBadCredentialsException(Locales locales) {
+        return handler.handleDefaultException(wrappedBadCredentialsException, request);
+    }
+
+    @Benchmark
+    public String getStackTrace() {
+        return StackTraceBenchmark.fullStackTrace(nestedException);
+    }
+
+    @Benchmark
+    public byte[] serializeApiErrorException() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleApiErrorException(apiErrorException, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] serializeConstraintViolationException(Violations violations) throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleConstraintViolationException(violations.exception, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] serializeBadCredentialsException(Locales locales) throws Exception {
+        return objectMapper.writeValueAsBytes(handler.createDefaultResponseEntity(badCredentialsException, new HttpHeaders(), UNAUTHORIZED, "Invalid username or password.", null, null, request).getBody());
+    }
+
+    @Benchmark
+    public Object staticBadCredentialsException(Locales locales) {
+        return staticResponsesHandler.createDefaultResponseEntity(badCredentialsException, new HttpHeaders(), UNAUTHORIZED, "Invalid username or password.", null, null, request).getBody();
+    }
+
+    @Benchmark
+    public byte[] serializeTooManyRequests() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.handleApiErrorException(ApiError.tooManyRequests(), request).getBody());
+    }
+
+    @Benchmark
+    public Object overloadTooManyRequests() {
+        return handler.handleOverloadException(overloadResponses.tooManyRequests()).getBody();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Violations {
+
+        @Param({"1", "10", "1000"})
+        private int count;
+
+        private ConstraintViolationException exception;
+
+        @Setup
+        public void setup() {
+            exception = ValidationPayloads.violations(count);
+        }
+    }
+
+    /**
+     * Per thread because {@link LocaleContextHolder} is thread bound.
+     */
+    @State(Scope.Thread)
+    public static class Locales {
+
+        @Param({"en", "es", "fr"})
+        private String locale;
+
+        @Setup
+        public void setup() {
+            LocaleContextHolder.setLocale(Locale.forLanguageTag(locale));
+        }
+
+        @TearDown
+        public void tearDown() {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+}
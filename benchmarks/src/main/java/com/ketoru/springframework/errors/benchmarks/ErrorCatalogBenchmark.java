@@ -0,0 +1,45 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.ApiError;
+import com.ketoru.springframework.errors.ApiErrorException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of a stackless business error: the {@link ApiError} chain with its string type against the factory method
+ * of the generated {@code OrderErrorsCatalog}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorCatalogBenchmark {
+
+    private String orderId = "A-1042";
+
+    @Setup
+    public void setup() {
+        ApiErrorException.setWritableStackTraceByDefault(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ApiErrorException.setWritableStackTraceByDefault(true);
+    }
+
+    @Benchmark
+    public ApiErrorException apiErrorChain() {
+        return ApiError.status(404)
+                .title("Order Not Found")
+                .type("https://errors.example.com/orders/order-not-found")
+                .detail("Order " + orderId + " was not found");
+    }
+
+    @Benchmark
+    public ApiErrorException catalog() {
+        return OrderErrorsCatalog.orderNotFound(orderId);
+    }
+}
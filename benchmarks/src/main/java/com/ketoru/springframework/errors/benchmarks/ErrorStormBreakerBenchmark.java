@@ -0,0 +1,39 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.storm.ErrorStormBreaker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost added to every handled error by {@link ErrorStormBreaker#record()}, with four threads recording at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ErrorStormBreakerBenchmark {
+
+    private ErrorStormBreaker breaker;
+
+    @Setup
+    public void setup() {
+        var properties = new ErrorsProperties.ErrorStorm();
+        properties.setThreshold(Double.MAX_VALUE);
+        breaker = new ErrorStormBreaker(properties);
+    }
+
+    @Benchmark
+    public boolean record() {
+        return breaker.record();
+    }
+
+    @Benchmark
+    public boolean isDegraded() {
+        return breaker.isDegraded();
+    }
+}
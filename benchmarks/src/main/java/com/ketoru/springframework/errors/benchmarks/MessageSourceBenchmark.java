@@ -0,0 +1,52 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.ErrorsConfiguration;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.MessageSource;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detail message resolution through the reloadable resource bundle message source against the compiled catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSourceBenchmark {
+
+    private static final String CODE = "problemDetail.org.springframework.web.HttpRequestMethodNotSupportedException";
+
+    @Param({"false", "true"})
+    private boolean reloadable;
+
+    @Param({"en", "es_EC"})
+    private String locale;
+
+    private MessageSource messageSource;
+    private Locale resolvedLocale;
+    private Object[] arguments;
+
+    @Setup
+    public void setup() {
+        var properties = new ErrorsProperties();
+        properties.setReloadableMessages(reloadable);
+        messageSource = ErrorsConfiguration.messageSource(properties);
+        resolvedLocale = Locale.forLanguageTag(locale.replace('_', '-'));
+        arguments = new Object[]{"PATCH", "[GET, POST]"};
+    }
+
+    @Benchmark
+    public String detail() {
+        return messageSource.getMessage(CODE, arguments, null, resolvedLocale);
+    }
+
+    @Benchmark
+    public String title() {
+        return messageSource.getMessage("problemDetail.title.org.springframework.web.HttpRequestMethodNotSupportedException", null, null, resolvedLocale);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.catalog.ErrorCatalog;
+import com.ketoru.springframework.errors.catalog.ErrorCode;
+
+/**
+ * Error codes of {@link ErrorCatalogBenchmark}, generated into {@code OrderErrorsCatalog}.
+ */
+@ErrorCatalog(typeBase = "https://errors.example.com/orders/", bundle = "lang/benchmark-errors")
+public enum OrderErrors {
+
+    @ErrorCode(status = 404, arguments = "orderId")
+    ORDER_NOT_FOUND,
+
+    @ErrorCode(status = 402, arguments = {"orderId", "reason"})
+    PAYMENT_DECLINED,
+
+    @ErrorCode(status = 400, type = "empty-cart")
+    CART_EMPTY
+}
@@ -0,0 +1,86 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.support.StackTraceRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a three level cause chain thrown {@code depth} frames deep: the unbounded
+ * {@link Throwable#printStackTrace()} output against {@link StackTraceRenderer}, on a cache hit and on a cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackTraceBenchmark {
+
+    @Param({"20", "200"})
+    private int depth;
+
+    private Exception exception;
+    private StackTraceRenderer cached;
+    private StackTraceRenderer uncached;
+    private StackTraceRenderer structured;
+
+    @Setup
+    public void setup() {
+        exception = descend(depth);
+        cached = new StackTraceRenderer(new ErrorsProperties.StackTrace());
+        var noCache = new ErrorsProperties.StackTrace();
+        noCache.setCacheSize(0);
+        uncached = new StackTraceRenderer(noCache);
+        var structuredProperties = new ErrorsProperties.StackTrace();
+        structuredProperties.setFormat(StackTraceRenderer.Format.STRUCTURED);
+        structuredProperties.setCacheSize(0);
+        structured = new StackTraceRenderer(structuredProperties);
+    }
+
+    private static Exception descend(int remaining) {
+        if (remaining > 0) return descend(remaining - 1);
+        try {
+            try {
+                throw new IllegalArgumentException("root cause");
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("wrapped", ex);
+            }
+        } catch (IllegalStateException ex) {
+            return new RuntimeException("outer", ex);
+        }
+    }
+
+    @Benchmark
+    public String printStackTrace() {
+        return fullStackTrace(exception);
+    }
+
+    @Benchmark
+    public Object rendererCached() {
+        return cached.render(exception);
+    }
+
+    @Benchmark
+    public Object rendererUncached() {
+        return uncached.render(exception);
+    }
+
+    @Benchmark
+    public Object rendererStructured() {
+        return structured.render(exception);
+    }
+
+    /**
+     * Full, unbounded trace as printed by {@link Throwable#printStackTrace()}, what {@code send-stack-trace} sent
+     * before {@link StackTraceRenderer}.
+     */
+    static String fullStackTrace(Throwable throwable) {
+        var sw = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(sw, true));
+        return sw.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.ApiError;
+import com.ketoru.springframework.errors.ApiErrorException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of throwing and catching {@link ApiErrorException} with and without a stack trace, from a configurable
+ * call depth to approximate a controller invoked through the servlet and Spring MVC frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StacklessApiErrorBenchmark {
+
+    @Param({"10", "100"})
+    private int depth;
+
+    @Param({"false", "true"})
+    private boolean stackless;
+
+    @Benchmark
+    public ApiErrorException throwNotFound() {
+        try {
+            return descend(depth);
+        } catch (ApiErrorException ex) {
+            return ex;
+        }
+    }
+
+    private ApiErrorException descend(int remaining) {
+        if (remaining > 0) return descend(remaining - 1);
+        throw ApiError.status(404).stackless(stackless).detail("Not Found");
+    }
+}
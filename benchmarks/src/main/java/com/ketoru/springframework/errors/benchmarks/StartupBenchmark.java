@@ -0,0 +1,59 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.ketoru.springframework.errors.ErrorsConfiguration;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesAware;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesRefresher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh and close of an application context with the library configuration, a handler and {@code beans} unrelated
+ * beans. {@code beanPostProcessor} adds the per-bean post-processor that used to deliver the properties, which is
+ * instantiated before the other beans together with the properties and the refresher it depends on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 30)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"100", "2000"})
+    private int beans;
+
+    @Param({"false", "true"})
+    private boolean beanPostProcessor;
+
+    @Benchmark
+    public AnnotationConfigApplicationContext startup() {
+        var context = new AnnotationConfigApplicationContext();
+        context.register(ErrorsConfiguration.class, BenchmarkExceptionHandler.class);
+        if (beanPostProcessor) context.registerBean(LegacyPostProcessor.class);
+        for (var i = 0; i < beans; i++) context.registerBean("bean" + i, Filler.class);
+        context.refresh();
+        context.close();
+        return context;
+    }
+
+    public static class Filler {
+    }
+
+    public static class LegacyPostProcessor implements BeanPostProcessor {
+
+        private final ErrorsPropertiesRefresher refresher;
+
+        public LegacyPostProcessor(ErrorsPropertiesRefresher refresher) {
+            this.refresher = refresher;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof ErrorsPropertiesAware aware) aware.setErrorsConfiguration(refresher.current());
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ketoru.springframework.errors.schemas.FieldErrorPair;
+import com.ketoru.springframework.errors.schemas.ValidationError;
+import com.ketoru.springframework.errors.schemas.ValidationErrors;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Aggregation of field messages into {@link ValidationError} when every violation targets a distinct field, the worst
+ * case for a lookup by field, and the problem body written to the response with {@link ValidationError} and with the
+ * streamed {@link ValidationErrors}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class ValidationErrorBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int fields;
+
+    private String[] names;
+    private List<FieldErrorPair> pairs;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        names = new String[fields];
+        for (var i = 0; i < fields; i++) names[i] = "items[" + i + "].sku";
+        pairs = new ArrayList<>(fields);
+        for (var name : names) pairs.add(new FieldErrorPair(name, "must not be null"));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public ValidationError aggregate() {
+        var validations = new ValidationError();
+        for (var name : names) validations.addError(name, "must not be null");
+        return validations;
+    }
+
+    @Benchmark
+    public ProblemDetail writeValidationError() throws IOException {
+        var body = ProblemDetail.forStatus(400);
+        ValidationError.of(pairs, 0, Function.identity()).addTo(body);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), body);
+        return body;
+    }
+
+    @Benchmark
+    public ProblemDetail writeValidationErrors() throws IOException {
+        var body = ProblemDetail.forStatus(400);
+        ValidationErrors.of(pairs, 0, Function.identity()).addTo(body);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), body);
+        return body;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ketoru.springframework.errors.benchmarks;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds real Hibernate Validator violations for a bulk payload, one violation per invalid item.
+ */
+public final class ValidationPayloads {
+
+    private ValidationPayloads() {
+    }
+
+    public static ConstraintViolationException violations(int count) {
+        var items = new ArrayList<Item>(count);
+        for (var i = 0; i < count; i++) items.add(new Item(null, 1));
+        try (var factory = Validation.buildDefaultValidatorFactory()) {
+            Set<ConstraintViolation<Order>> violations = factory.getValidator().validate(new Order(items));
+            return new ConstraintViolationException(violations);
+        }
+    }
+
+    public record Order(@Valid List<Item> items) {
+    }
+
+    public record Item(@NotNull String sku, @Positive int quantity) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.ketoru.springframework.errors.benchmarks.load;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process load test of the full servlet error path: {@link LoadTestApplication} on embedded Tomcat, driven over
+ * HTTP by {@code concurrency} clients sending a mix of failing requests, with the server and the clients on platform
+ * threads and then on virtual threads. Reports throughput and p50, p99 and p999 latency per error type, and exits with
+ * status 1 when a request gets another status than expected or fails, or when a result regresses beyond
+ * {@code tolerance} of the stored baseline.
+ * <pre>
+ * java -cp benchmarks.jar com.ketoru.springframework.errors.benchmarks.load.ErrorLoadTest
+ *     [--threads=platform,virtual] [--concurrency=32] [--warmup=PT5S] [--duration=PT20S]
+ *     [--baseline=load-baseline.properties] [--tolerance=0.2] [--update-baseline] [--spring.property=value ...]
+ * </pre>
+ * The baseline depends on the machine, record it with {@code --update-baseline} on the one running the comparisons.
+ */
+public final class ErrorLoadTest {
+
+    private ErrorLoadTest() {
+    }
+
+    enum ErrorType {
+        API_ERROR("/bad-request", 400),
+        API_ERROR_EXTENSIONS("/bad-request-by-extension", 400),
+        MISSING_PARAMETER("/endpoint-with-param", 400),
+        CONSTRAINT_VIOLATION("/load/constraint-violation", 400),
+        BAD_CREDENTIALS("/load/bad-credentials", 401),
+        UNEXPECTED("/load/unexpected", 500);
+
+        private final String path;
+        private final int status;
+
+        ErrorType(String path, int status) {
+            this.path = path;
+            this.status = status;
+        }
+    }
+
+    /**
+     * @param p50 latencies in microseconds
+     */
+    record Result(long requests, long failures, double throughput, long p50, long p99, long p999) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var threads = List.of("platform", "virtual");
+        var concurrency = 32;
+        var warmup = Duration.ofSeconds(5);
+        var duration = Duration.ofSeconds(20);
+        var baselinePath = Path.of("load-baseline.properties");
+        var tolerance = 0.2;
+        var updateBaseline = false;
+        var springArgs = new ArrayList<String>();
+        for (var arg : args) {
+            var value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--threads=")) threads = List.of(value.split(","));
+            else if (arg.startsWith("--concurrency=")) concurrency = Integer.parseInt(value);
+            else if (arg.startsWith("--warmup=")) warmup = Duration.parse(value);
+            else if (arg.startsWith("--duration=")) duration = Duration.parse(value);
+            else if (arg.startsWith("--baseline=")) baselinePath = Path.of(value);
+            else if (arg.startsWith("--tolerance=")) tolerance = Double.parseDouble(value);
+            else if (arg.equals("--update-baseline")) updateBaseline = true;
+            else springArgs.add(arg);
+        }
+
+        var baseline = LoadBaseline.load(baselinePath);
+        var failures = new ArrayList<String>();
+        var regressions = new ArrayList<String>();
+        for (var mode : threads) {
+            var results = run(mode.equals("virtual"), concurrency, warmup, duration, springArgs);
+            print(mode, concurrency, results);
+            results.forEach((type, result) -> {
+                if (result.failures() > 0) failures.add(String.format("%s %s: %d of %d requests without status %d", mode, type, result.failures(), result.requests(), type.status));
+            });
+            if (updateBaseline) baseline.put(mode, results);
+            else regressions.addAll(baseline.regressions(mode, results, tolerance));
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println("Failed requests" + (updateBaseline ? ", baseline not written:" : ":"));
+            failures.forEach(failure -> System.out.println("  " + failure));
+            System.exit(1);
+        } else if (updateBaseline) {
+            baseline.store(baselinePath);
+            System.out.println("Baseline written to " + baselinePath.toAbsolutePath());
+        } else if (baseline.isEmpty()) {
+            System.out.println("No baseline at " + baselinePath.toAbsolutePath() + ", record one with --update-baseline");
+        } else if (!regressions.isEmpty()) {
+            System.out.println("Regressions beyond " + (int) (tolerance * 100) + "% of the baseline:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static Map<ErrorType, Result> run(boolean virtual, int concurrency, Duration warmup, Duration duration, List<String> springArgs) throws Exception {
+        var args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.profiles.active=test",
+                "--spring.main.banner-mode=off",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=" + Math.max(200, concurrency),
+                "--logging.level.root=warn",
+                "--com.ketoru.springframework.errors.log-errors=false"));
+        args.addAll(springArgs);
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(LoadTestApplication.class, args.toArray(String[]::new));
+             ExecutorService clients = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(concurrency)) {
+            var base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            var builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+            // the fixed platform pool is fully taken by the blocked clients, the client keeps its own executor then
+            if (virtual) builder.executor(clients);
+            var client = builder.build();
+            var requests = new HttpRequest[ErrorType.values().length];
+            for (var type : ErrorType.values()) requests[type.ordinal()] = HttpRequest.newBuilder(URI.create(base + type.path)).header("Accept", "application/json").build();
+
+            drive(client, requests, clients, concurrency, warmup);
+            var recorders = drive(client, requests, clients, concurrency, duration);
+
+            var results = new EnumMap<ErrorType, Result>(ErrorType.class);
+            for (var type : ErrorType.values()) results.put(type, result(recorders, type, duration));
+            return results;
+        }
+    }
+
+    private static List<Recorder> drive(HttpClient client, HttpRequest[] requests, ExecutorService clients, int concurrency, Duration duration) throws Exception {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var recorders = new ArrayList<Recorder>(concurrency);
+        var futures = new ArrayList<Future<?>>(concurrency);
+        for (var worker = 0; worker < concurrency; worker++) {
+            var recorder = new Recorder();
+            recorders.add(recorder);
+            var offset = worker;
+            futures.add(clients.submit(() -> {
+                for (var i = offset; System.nanoTime() < deadline; i++) {
+                    var type = ErrorType.values()[i % requests.length];
+                    var start = System.nanoTime();
+                    try {
+                        var response = client.send(requests[type.ordinal()], HttpResponse.BodyHandlers.ofByteArray());
+                        recorder.record(type, System.nanoTime() - start, response.statusCode() == type.status);
+                    } catch (Exception ex) {
+                        recorder.record(type, System.nanoTime() - start, false);
+                    }
+                }
+            }));
+        }
+        for (var future : futures) future.get();
+        return recorders;
+    }
+
+    private static Result result(List<Recorder> recorders, ErrorType type, Duration duration) {
+        var total = 0;
+        for (var recorder : recorders) total += recorder.counts[type.ordinal()];
+        var latencies = new long[total];
+        var at = 0;
+        var failures = new LongAdder();
+        for (var recorder : recorders) {
+            var count = recorder.counts[type.ordinal()];
+            System.arraycopy(recorder.latencies[type.ordinal()], 0, latencies, at, count);
+            at += count;
+            failures.add(recorder.failures[type.ordinal()]);
+        }
+        Arrays.sort(latencies);
+        return new Result(total, failures.sum(), total / (duration.toNanos() / 1e9), micros(latencies, 0.5), micros(latencies, 0.99), micros(latencies, 0.999));
+    }
+
+    private static long micros(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        var index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000;
+    }
+
+    private static void print(String mode, int concurrency, Map<ErrorType, Result> results) {
+        System.out.printf("%n%s threads, %d clients%n", mode, concurrency);
+        System.out.printf("%-22s %10s %9s %12s %9s %9s %9s%n", "error type", "requests", "failures", "req/s", "p50 us", "p99 us", "p999 us");
+        results.forEach((type, result) -> System.out.printf("%-22s %10d %9d %12.0f %9d %9d %9d%n",
+                type, result.requests(), result.failures(), result.throughput(), result.p50(), result.p99(), result.p999()));
+    }
+
+    /**
+     * Latencies of one client, per error type.
+     */
+    private static final class Recorder {
+
+        private final long[][] latencies = new long[ErrorType.values().length][1024];
+        private final int[] counts = new int[ErrorType.values().length];
+        private final long[] failures = new long[ErrorType.values().length];
+
+        private void record(ErrorType type, long nanos, boolean success) {
+            var index = type.ordinal();
+            if (counts[index] == latencies[index].length) latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+            latencies[index][counts[index]++] = nanos;
+            if (!success) failures[index]++;
+        }
+    }
+}
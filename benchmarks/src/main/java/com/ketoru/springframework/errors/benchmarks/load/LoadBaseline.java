@@ -0,0 +1,70 @@
+package com.ketoru.springframework.errors.benchmarks.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Results of a reference run, stored as properties: {@code <threads>.<error type>.throughput} in requests per second and
+ * {@code <threads>.<error type>.p99} in microseconds.
+ */
+final class LoadBaseline {
+
+    private final Properties values = new Properties();
+
+    static LoadBaseline load(Path path) throws IOException {
+        var baseline = new LoadBaseline();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                baseline.values.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    void put(String threads, Map<ErrorLoadTest.ErrorType, ErrorLoadTest.Result> results) {
+        results.forEach((type, result) -> {
+            values.setProperty(key(threads, type, "throughput"), String.format("%.0f", result.throughput()));
+            values.setProperty(key(threads, type, "p99"), Long.toString(result.p99()));
+        });
+    }
+
+    /**
+     * @param tolerance allowed relative drop of throughput and rise of p99 latency
+     * @return a description of each regression, empty when none
+     */
+    List<String> regressions(String threads, Map<ErrorLoadTest.ErrorType, ErrorLoadTest.Result> results, double tolerance) {
+        var regressions = new ArrayList<String>();
+        results.forEach((type, result) -> {
+            var throughput = values.getProperty(key(threads, type, "throughput"));
+            if (throughput != null && result.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+                regressions.add(String.format("%s %s throughput %.0f req/s, baseline %s req/s", threads, type, result.throughput(), throughput));
+            }
+            var p99 = values.getProperty(key(threads, type, "p99"));
+            if (p99 != null && result.p99() > Long.parseLong(p99) * (1 + tolerance)) {
+                regressions.add(String.format("%s %s p99 %d us, baseline %s us", threads, type, result.p99(), p99));
+            }
+        });
+        return regressions;
+    }
+
+    void store(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            values.store(writer, "Error load test baseline");
+        }
+    }
+
+    private static String key(String threads, ErrorLoadTest.ErrorType type, String metric) {
+        return threads + "." + type.name().toLowerCase() + "." + metric;
+    }
+}
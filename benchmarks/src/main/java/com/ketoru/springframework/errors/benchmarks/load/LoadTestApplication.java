@@ -0,0 +1,51 @@
+package com.ketoru.springframework.errors.benchmarks.load;
+
+import com.ketoru.springframework.errors.DefaultExceptionHandler;
+import com.ketoru.springframework.errors.benchmarks.ValidationPayloads;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.List;
+
+/**
+ * Application driven by {@link ErrorLoadTest}: the {@code test} profile {@code TestController} plus endpoints failing
+ * with a constraint violation, a security exception and an unexpected exception.
+ */
+@SpringBootApplication(scanBasePackages = {"com.ketoru.springframework.errors.controllers", "com.ketoru.springframework.errors.benchmarks.load"})
+public class LoadTestApplication {
+
+    @RestControllerAdvice
+    static class LoadTestExceptionHandler extends DefaultExceptionHandler {
+    }
+
+    @RestController
+    static class LoadTestController {
+
+        private final Validator validator;
+
+        LoadTestController(Validator validator) {
+            this.validator = validator;
+        }
+
+        @GetMapping("load/constraint-violation")
+        public String constraintViolation() {
+            var order = new ValidationPayloads.Order(List.of(new ValidationPayloads.Item(null, 1), new ValidationPayloads.Item("sku", 0)));
+            throw new ConstraintViolationException(validator.validate(order));
+        }
+
+        @GetMapping("load/bad-credentials")
+        public String badCredentials() {
+            throw new BadCredentialsException("Bad credentials");
+        }
+
+        @GetMapping("load/unexpected")
+        public String unexpected() {
+            throw new IllegalStateException("Unexpected failure");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ketoru.springframework.errors.processor;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An {@code @ErrorCode} constant with its messages taken from the default bundle.
+ *
+ * @param type      absolute {@code type} URI, {@code null} for none
+ * @param detail    the detail message as written in the bundle
+ * @param segments  the detail split into literals ({@link String}) and argument indexes ({@link Integer}),
+ *                  {@code null} when it uses format types such as {@code {0,number}}
+ */
+record CatalogEntry(
+        String constant,
+        String code,
+        int status,
+        String type,
+        String title,
+        String detail,
+        List<String> arguments,
+        List<Object> segments
+) {
+
+    private static final char MARKER = '\u0000';
+
+    String detailCode() {
+        return "problemDetail." + code;
+    }
+
+    String titleCode() {
+        return "problemDetail.title." + code;
+    }
+
+    /**
+     * @return the segments of a detail with {@code arguments} arguments, formatted as {@link MessageFormat} would
+     */
+    static List<Object> segments(String detail, int arguments) {
+        var markers = new Object[arguments];
+        for (var i = 0; i < arguments; i++) markers[i] = MARKER + Integer.toString(i) + MARKER;
+        String formatted;
+        try {
+            formatted = new MessageFormat(detail, Locale.ROOT).format(markers);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        var segments = new ArrayList<>();
+        var parts = formatted.split(String.valueOf(MARKER), -1);
+        for (var i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                if (!parts[i].isEmpty()) segments.add(parts[i]);
+            } else {
+                segments.add(Integer.parseInt(parts[i]));
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ketoru.springframework.errors.processor;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the source of a generated catalog class.
+ */
+final class CatalogWriter {
+
+    private final Writer out;
+
+    CatalogWriter(Writer out) {
+        this.out = out;
+    }
+
+    void write(String packageName, String enumName, String className, String bundle, List<CatalogEntry> entries) throws IOException {
+        if (!packageName.isEmpty()) out.write("package " + packageName + ";\n\n");
+        out.write("""
+                import com.ketoru.springframework.errors.ApiError;
+                import com.ketoru.springframework.errors.ApiErrorException;
+                import com.ketoru.springframework.errors.ApiErrorTemplate;
+                import com.ketoru.springframework.errors.ApiErrorTemplates;
+
+                import java.net.URI;
+
+                """);
+        out.write("/**\n * Error catalog of {@link " + enumName + "}, generated from its {@code @ErrorCode}s and the {@code " + bundle + "} bundles.\n */\n");
+        out.write("@javax.annotation.processing.Generated(\"" + ErrorCatalogProcessor.class.getName() + "\")\n");
+        out.write("public final class " + className + " {\n");
+
+        for (var entry : entries) writeConstants(entry);
+        out.write("\n    private " + className + "() {\n    }\n");
+
+        out.write("\n    public static ApiErrorTemplate template(" + enumName + " code) {\n        return switch (code) {\n");
+        for (var entry : entries) out.write("            case " + entry.constant() + " -> " + entry.constant() + ";\n");
+        out.write("        };\n    }\n");
+
+        for (var entry : entries) writeFactory(entry);
+        if (entries.stream().anyMatch(entry -> !entry.arguments().isEmpty() && entry.segments() != null)) writeFormatArgument();
+        out.write("}\n");
+    }
+
+    private void writeConstants(CatalogEntry entry) throws IOException {
+        var name = entry.constant();
+        out.write("\n");
+        out.write("    public static final String " + name + "_CODE = " + literal(entry.code()) + ";\n");
+        out.write("    public static final String " + name + "_DETAIL_CODE = " + literal(entry.detailCode()) + ";\n");
+        out.write("    public static final String " + name + "_TITLE_CODE = " + literal(entry.titleCode()) + ";\n");
+        out.write("    public static final int " + name + "_STATUS = " + entry.status() + ";\n");
+        if (entry.type() != null) out.write("    public static final URI " + name + "_TYPE = URI.create(" + literal(entry.type()) + ");\n");
+        out.write("    public static final ApiErrorTemplate " + name + " = ApiErrorTemplates.register(" + name + "_CODE, ApiError.status(" + name + "_STATUS)\n");
+        out.write("            .title(" + literal(entry.title()) + ")\n");
+        if (entry.type() != null) out.write("            .type(" + name + "_TYPE)\n");
+        out.write("            .template(" + literal(entry.detail()) + ", " + name + "_DETAIL_CODE, " + name + "_TITLE_CODE));\n");
+    }
+
+    private void writeFactory(CatalogEntry entry) throws IOException {
+        var arguments = entry.arguments();
+        var parameters = String.join(", ", arguments.stream().map(argument -> "Object " + argument).toList());
+        out.write("\n    public static ApiErrorException " + methodName(entry.constant()) + "(" + parameters + ") {\n");
+        if (arguments.isEmpty()) {
+            out.write("        return " + entry.constant() + ".exception();\n");
+        } else {
+            var array = "new Object[]{" + String.join(", ", arguments) + "}";
+            var detail = entry.segments() != null
+                    ? concatenation(entry.segments(), arguments)
+                    : "java.text.MessageFormat.format(" + literal(entry.detail()) + ", " + array + ")";
+            out.write("        return " + entry.constant() + ".detail(" + detail + ", " + array + ");\n");
+        }
+        out.write("    }\n");
+    }
+
+    /**
+     * Numbers and dates go through {@link java.text.MessageFormat}, as in the bundle, so that {@code 1234} reads
+     * {@code 1,234} in both.
+     */
+    private void writeFormatArgument() throws IOException {
+        out.write("""
+
+                    private static String formatArgument(Object argument) {
+                        if (argument instanceof Number || argument instanceof java.util.Date) return java.text.MessageFormat.format("{0}", argument);
+                        return String.valueOf(argument);
+                    }
+                """);
+    }
+
+    private static String concatenation(List<Object> segments, List<String> arguments) {
+        var builder = new StringBuilder();
+        for (var segment : segments) {
+            if (!builder.isEmpty()) builder.append(" + ");
+            if (segment instanceof Integer index) builder.append("formatArgument(").append(arguments.get(index)).append(')');
+            else builder.append(literal((String) segment));
+        }
+        return builder.isEmpty() ? "\"\"" : builder.toString();
+    }
+
+    /**
+     * {@code ORDER_NOT_FOUND} to {@code orderNotFound}.
+     */
+    static String methodName(String constant) {
+        var builder = new StringBuilder(constant.length());
+        var upper = false;
+        for (var c : constant.toCharArray()) {
+            if (c == '_') {
+                upper = !builder.isEmpty();
+                continue;
+            }
+            builder.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            upper = false;
+        }
+        var name = builder.toString();
+        return SourceVersion.isKeyword(name) || name.isEmpty() || name.equals("template") || name.equals("formatArgument") ? name + "Error" : name;
+    }
+
+    /**
+     * {@code ORDER_NOT_FOUND} to {@code order-not-found}.
+     */
+    static String kebabCase(String constant) {
+        return constant.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static String literal(String value) {
+        var builder = new StringBuilder(value.length() + 2).append('"');
+        for (var c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,190 @@
+package com.ketoru.springframework.errors.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Generates the {@code <Enum>Catalog} class of every {@code @ErrorCatalog} enum, see
+ * {@code com.ketoru.springframework.errors.catalog.ErrorCatalog}. Every message key must be in every bundle file, with
+ * as many arguments as the {@code @ErrorCode} declares, otherwise compilation fails on the constant.
+ * <p>
+ * The annotations are read by name, so the processor does not need the library on its path.
+ */
+@SupportedAnnotationTypes(ErrorCatalogProcessor.ERROR_CATALOG)
+@SupportedOptions(ErrorCatalogProcessor.RESOURCES_OPTION)
+public class ErrorCatalogProcessor extends AbstractProcessor {
+
+    static final String ERROR_CATALOG = "com.ketoru.springframework.errors.catalog.ErrorCatalog";
+    static final String ERROR_CODE = "com.ketoru.springframework.errors.catalog.ErrorCode";
+    static final String RESOURCES_OPTION = "com.ketoru.springframework.errors.resources";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (var annotation : annotations) {
+            for (var element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.ENUM) error(element, "@ErrorCatalog is only supported on enums");
+                else process((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void process(TypeElement catalog) {
+        var values = values(catalog, ERROR_CATALOG);
+        var typeBase = (String) values.get("typeBase");
+        var bundle = (String) values.get("bundle");
+
+        Map<String, Properties> bundles;
+        try {
+            bundles = MessageBundles.load(processingEnv.getFiler(), bundle, resourceDirs());
+        } catch (IOException | RuntimeException ex) {
+            error(catalog, "Cannot read the " + bundle + " bundles: " + ex.getMessage());
+            return;
+        }
+        var defaultBundle = bundles.get(bundle.substring(bundle.lastIndexOf('/') + 1) + ".properties");
+        if (defaultBundle == null) {
+            error(catalog, "No " + bundle + ".properties bundle found, set -A" + RESOURCES_OPTION + " to the resource directories");
+            return;
+        }
+
+        var entries = new ArrayList<CatalogEntry>();
+        var valid = true;
+        for (var constant : catalog.getEnclosedElements()) {
+            if (constant.getKind() != ElementKind.ENUM_CONSTANT) continue;
+            var entry = entry(catalog, constant, typeBase, bundles, defaultBundle);
+            if (entry == null) valid = false;
+            else entries.add(entry);
+        }
+        if (!valid) return;
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(catalog).getQualifiedName().toString();
+        var enumName = catalog.getSimpleName().toString();
+        var className = enumName + "Catalog";
+        var qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (var out = processingEnv.getFiler().createSourceFile(qualifiedName, catalog).openWriter()) {
+            new CatalogWriter(out).write(packageName, enumName, className, bundle, entries);
+        } catch (IOException ex) {
+            error(catalog, "Cannot write " + qualifiedName + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * @return the entry of the constant, {@code null} after reporting its errors
+     */
+    private CatalogEntry entry(TypeElement catalog, Element constant, String typeBase, Map<String, Properties> bundles, Properties defaultBundle) {
+        if (!hasAnnotation(constant, ERROR_CODE)) {
+            error(constant, "Missing @ErrorCode on " + constant.getSimpleName());
+            return null;
+        }
+        var values = values(constant, ERROR_CODE);
+        var name = constant.getSimpleName().toString();
+        var code = catalog.getQualifiedName() + "." + name;
+        var status = (Integer) values.get("status");
+        @SuppressWarnings("unchecked")
+        var arguments = ((List<? extends AnnotationValue>) values.get("arguments")).stream().map(value -> (String) value.getValue()).toList();
+        var valid = true;
+
+        if (status < 100 || status > 599) valid = error(constant, "Invalid status " + status);
+        for (var argument : arguments) {
+            if (!SourceVersion.isName(argument)) valid = error(constant, "Invalid argument name '" + argument + "'");
+        }
+        var type = type(typeBase, (String) values.get("type"), name);
+        if (type != null) {
+            try {
+                new URI(type);
+            } catch (URISyntaxException ex) {
+                valid = error(constant, "Invalid type URI " + ex.getMessage());
+            }
+        }
+
+        var detailCode = "problemDetail." + code;
+        var titleCode = "problemDetail.title." + code;
+        for (var bundle : bundles.entrySet()) {
+            valid &= checkMessage(constant, bundle.getKey(), bundle.getValue(), detailCode, arguments.size());
+            valid &= checkMessage(constant, bundle.getKey(), bundle.getValue(), titleCode, 0);
+        }
+        if (!valid) return null;
+
+        var detail = defaultBundle.getProperty(detailCode);
+        var segments = arguments.isEmpty() ? null : CatalogEntry.segments(detail, arguments.size());
+        return new CatalogEntry(name, code, status, type, defaultBundle.getProperty(titleCode), detail, arguments, segments);
+    }
+
+    private boolean checkMessage(Element constant, String file, Properties bundle, String key, int arguments) {
+        var message = bundle.getProperty(key);
+        if (message == null) return error(constant, "Missing message '" + key + "' in " + file);
+        if (arguments == 0) return true;
+        int found;
+        try {
+            found = new MessageFormat(message).getFormatsByArgumentIndex().length;
+        } catch (IllegalArgumentException ex) {
+            return error(constant, "Invalid message '" + key + "' in " + file + ": " + ex.getMessage());
+        }
+        if (found != arguments) return error(constant, "Message '" + key + "' in " + file + " has " + found + " arguments, " + arguments + " declared");
+        return true;
+    }
+
+    private static String type(String typeBase, String type, String constant) {
+        if (type.isEmpty()) return typeBase.isEmpty() ? null : typeBase + CatalogWriter.kebabCase(constant);
+        return type.contains(":") ? type : typeBase + type;
+    }
+
+    private List<Path> resourceDirs() {
+        var option = processingEnv.getOptions().get(RESOURCES_OPTION);
+        if (option == null || option.isBlank()) return List.of();
+        return Arrays.stream(option.split(",")).map(String::trim).filter(dir -> !dir.isEmpty()).map(Path::of).toList();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return mirror(element, annotation) != null;
+    }
+
+    private static AnnotationMirror mirror(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) return mirror;
+        }
+        return null;
+    }
+
+    /**
+     * @return the annotation values by attribute name, defaults included
+     */
+    private Map<String, Object> values(Element element, String annotation) {
+        var values = new HashMap<String, Object>();
+        var mirror = mirror(element, annotation);
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((attribute, value) -> values.put(attribute.getSimpleName().toString(), value.getValue()));
+        return values;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ketoru.springframework.errors.processor;
+
+import javax.annotation.processing.Filer;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code <basename>*.properties} files a catalog is checked against, by file name. They are looked up in the
+ * resource directories given with {@code -Acom.ketoru.springframework.errors.resources=dir1,dir2}, or else in the class
+ * output where Maven copies the resources before compiling.
+ */
+final class MessageBundles {
+
+    private MessageBundles() {
+    }
+
+    /**
+     * @return the bundles sorted by file name, the default bundle first; empty when there is none
+     */
+    static Map<String, Properties> load(Filer filer, String basename, List<Path> resourceDirs) throws IOException {
+        var bundles = new TreeMap<String, Properties>();
+        var slash = basename.lastIndexOf('/');
+        var prefix = basename.substring(slash + 1);
+        var pattern = Pattern.compile(Pattern.quote(prefix) + "(_[A-Za-z0-9_]+)?\\.properties");
+        for (var dir : directories(filer, basename, resourceDirs)) {
+            var bundleDir = slash < 0 ? dir : dir.resolve(basename.substring(0, slash));
+            if (!Files.isDirectory(bundleDir)) continue;
+            try (var files = Files.list(bundleDir)) {
+                for (var file : (Iterable<Path>) files::iterator) {
+                    var name = file.getFileName().toString();
+                    if (pattern.matcher(name).matches()) bundles.putIfAbsent(name, read(file));
+                }
+            }
+        }
+        return bundles;
+    }
+
+    private static List<Path> directories(Filer filer, String basename, List<Path> resourceDirs) throws IOException {
+        if (!resourceDirs.isEmpty()) return resourceDirs;
+        var resource = filer.getResource(StandardLocation.CLASS_OUTPUT, "", basename + ".properties");
+        var file = Path.of(resource.toUri());
+        // back from <output>/<basename>.properties to <output>
+        var output = file;
+        for (var i = 0; i < Path.of(basename).getNameCount(); i++) output = output.getParent();
+        return List.of(output);
+    }
+
+    /**
+     * Reads the bundle as UTF-8 and falls back to ISO-8859-1, as the library's message catalog does.
+     */
+    private static Properties read(Path file) throws IOException {
+        var bytes = Files.readAllBytes(file);
+        String content;
+        try {
+            content = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException ex) {
+            content = new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        var properties = new Properties();
+        properties.load(new StringReader(content));
+        return properties;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ketoru.springframework.errors.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import com.ketoru.springframework.errors.ApiErrorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ErrorCatalogProcessorTest {
+
+    private static final String OUT_OF_STOCK = "Only {1} left of the {0} requested";
+
+    @TempDir
+    private Path resources;
+    private JavaFileObject orderError;
+
+    @Test
+    void generatesCatalog() throws Exception {
+        bundle("errors.properties", OUT_OF_STOCK);
+        bundle("errors_es.properties", "Solo quedan {1} de los {0} pedidos");
+
+        var compilation = compile("""
+                @ErrorCode(status = 409, arguments = {"requested", "available"})
+                OUT_OF_STOCK
+                """);
+
+        assertThat(compilation).succeeded();
+        var catalog = new CompiledClassLoader(compilation).loadClass("com.acme.OrderErrorCatalog");
+        var exception = (ApiErrorException) catalog.getMethod("outOfStock", Object.class, Object.class).invoke(null, 1234, 5);
+        assertEquals(409, exception.getBody().getStatus());
+        assertEquals("Out of stock", exception.getBody().getTitle());
+        assertEquals(MessageFormat.format(OUT_OF_STOCK, 1234, 5), exception.getBody().getDetail());
+    }
+
+    @Test
+    void missingKey() {
+        bundle("errors.properties", OUT_OF_STOCK);
+        write("errors_es.properties", "problemDetail.com.acme.OrderError.OUT_OF_STOCK=Solo quedan {1} de los {0} pedidos\n");
+
+        var compilation = compile("""
+                @ErrorCode(status = 409, arguments = {"requested", "available"})
+                OUT_OF_STOCK
+                """);
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Missing message 'problemDetail.title.com.acme.OrderError.OUT_OF_STOCK' in errors_es.properties")
+                .inFile(orderError).onLineContaining("@ErrorCode");
+    }
+
+    @Test
+    void argumentMismatch() {
+        bundle("errors.properties", "Only {1} left");
+
+        var compilation = compile("""
+                @ErrorCode(status = 409, arguments = {"requested", "available", "warehouse"})
+                OUT_OF_STOCK
+                """);
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Message 'problemDetail.com.acme.OrderError.OUT_OF_STOCK' in errors.properties has 2 arguments, 3 declared")
+                .inFile(orderError).onLineContaining("@ErrorCode");
+    }
+
+    @Test
+    void invalidTypeUri() {
+        bundle("errors.properties", "Out of stock");
+
+        var compilation = compile("""
+                @ErrorCode(status = 409, type = "out of stock")
+                OUT_OF_STOCK
+                """);
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("Invalid type URI").inFile(orderError).onLineContaining("@ErrorCode");
+    }
+
+    private Compilation compile(String constants) {
+        orderError = JavaFileObjects.forSourceString("com.acme.OrderError", """
+                package com.acme;
+
+                import com.ketoru.springframework.errors.catalog.ErrorCatalog;
+                import com.ketoru.springframework.errors.catalog.ErrorCode;
+
+                @ErrorCatalog(bundle = "lang/errors", typeBase = "https://errors.acme.com/")
+                public enum OrderError {
+                """ + constants + """
+                }
+                """);
+        return javac()
+                .withProcessors(new ErrorCatalogProcessor())
+                .withOptions("-A" + ErrorCatalogProcessor.RESOURCES_OPTION + "=" + resources)
+                .compile(orderError);
+    }
+
+    private void bundle(String file, String detail) {
+        write(file, "problemDetail.title.com.acme.OrderError.OUT_OF_STOCK=Out of stock\n"
+                + "problemDetail.com.acme.OrderError.OUT_OF_STOCK=" + detail + "\n");
+    }
+
+    private void write(String file, String content) {
+        try {
+            Files.createDirectories(resources.resolve("lang"));
+            Files.writeString(resources.resolve("lang").resolve(file), content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Loads the classes of a compilation, the library from the test class path.
+     */
+    private static final class CompiledClassLoader extends ClassLoader {
+
+        private final Compilation compilation;
+
+        private CompiledClassLoader(Compilation compilation) {
+            super(CompiledClassLoader.class.getClassLoader());
+            this.compilation = compilation;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            var file = compilation.generatedFile(StandardLocation.CLASS_OUTPUT, name.replace('.', '/') + ".class")
+                    .orElseThrow(() -> new ClassNotFoundException(name));
+            try (var in = file.openInputStream()) {
+                var bytes = in.readAllBytes();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException ex) {
+                throw new ClassNotFoundException(name, ex);
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class ApiError {
     private URI type;
     private URI instance;
     private Map<String, Object> extensions = new LinkedHashMap<>();
+    private Boolean stackless;
 
     public ApiError() {
         this(HttpStatus.BAD_REQUEST);
@@ -87,27 +88,54 @@ public class ApiError {
         return this;
     }
 
+    /**
+     * Overrides {@link ApiErrorException#isWritableStackTraceByDefault()} for this throw only.
+     */
+    public ApiError stackless(boolean stackless) {
+        this.stackless = stackless;
+        return this;
+    }
+
 
     public ApiErrorException detail(String detail) {
         var problemDetail = getProblemDetail(detail);
-        return new ApiErrorException(problemDetail, headers);
+        return new ApiErrorException(problemDetail, headers, ApiErrorException.isWritableStackTrace(stackless));
+    }
+
+    /**
+     * @return an immutable template of this error, see {@link ApiErrorTemplates#register(String, ApiErrorTemplate)}
+     */
+    public ApiErrorTemplate template(String detail) {
+        return ApiErrorTemplate.of(this, detail);
+    }
+
+    /**
+     * @return an immutable template of this error with its title and detail resolved in the request locale, see
+     * {@link ApiErrorTemplate#of(ApiError, String, String, String)}
+     */
+    public ApiErrorTemplate template(String detail, String detailMessageCode, String titleMessageCode) {
+        return ApiErrorTemplate.of(this, detail, detailMessageCode, titleMessageCode);
     }
 
     public ProblemDetail getProblemDetail(String detail) {
         var problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
         problemDetail.setTitle(title);
-        problemDetail.setType(type);
+        if (type != null) problemDetail.setType(type);
         problemDetail.setInstance(instance);
         if (!extensions.isEmpty()) problemDetail.setProperties(extensions);
         return problemDetail;
     }
 
     public static ApiErrorException fail(String title, String detail, HttpStatus status) {
-        return status(status).title(title).detail(detail);
+        return ApiErrorTemplates.forStatus(status).create(title, detail);
     }
 
     private static ApiErrorException fail(String detail, HttpStatus status) {
-        return status(status).detail(detail);
+        return ApiErrorTemplates.forStatus(status).detail(detail);
+    }
+
+    private static ApiErrorException fail(HttpStatus status) {
+        return ApiErrorTemplates.forStatus(status).exception();
     }
 
     public static ApiErrorException notFound(String title, String detail) {
@@ -215,55 +243,55 @@ public class ApiError {
     }
 
     public static ApiErrorException notFound() {
-        return notFound("Not Found");
+        return fail(NOT_FOUND);
     }
 
     public static ApiErrorException badRequest() {
-        return badRequest("Bad Request");
+        return fail(BAD_REQUEST);
     }
 
     public static ApiErrorException unauthorized() {
-        return unauthorized("Unauthorized");
+        return fail(UNAUTHORIZED);
     }
 
     public static ApiErrorException forbidden() {
-        return forbidden("Forbidden");
+        return fail(FORBIDDEN);
     }
 
     public static ApiErrorException conflict() {
-        return conflict("Conflict");
+        return fail(CONFLICT);
     }
 
     public static ApiErrorException preconditionFailed() {
-        return preconditionFailed("Precondition Failed");
+        return fail(PRECONDITION_FAILED);
     }
 
     public static ApiErrorException preconditionRequired() {
-        return preconditionRequired("Precondition Required");
+        return fail(PRECONDITION_REQUIRED);
     }
 
     public static ApiErrorException tooManyRequests() {
-        return tooManyRequests("Too Many Requests");
+        return fail(TOO_MANY_REQUESTS);
     }
 
     public static ApiErrorException internalServerError() {
-        return internalServerError("Internal Server Error");
+        return fail(INTERNAL_SERVER_ERROR);
     }
 
     public static ApiErrorException notImplemented() {
-        return notImplemented("Not Implemented");
+        return fail(NOT_IMPLEMENTED);
     }
 
     public static ApiErrorException serviceUnavailable() {
-        return serviceUnavailable("Service Unavailable");
+        return fail(SERVICE_UNAVAILABLE);
     }
 
     public static ApiErrorException gatewayTimeout() {
-        return gatewayTimeout("Gateway Timeout");
+        return fail(GATEWAY_TIMEOUT);
     }
 
     public static ApiErrorException badGateway() {
-        return badGateway("Bad Gateway");
+        return fail(BAD_GATEWAY);
     }
 
 }
\ No newline at end of file
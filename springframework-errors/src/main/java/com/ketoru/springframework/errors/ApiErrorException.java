@@ -0,0 +1,169 @@
+package com.ketoru.springframework.errors;
+
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exception carrying a ready to send {@link ProblemDetail}. When created from an {@link ApiErrorTemplate} the body and
+ * headers are shared with the template and copied on first write, by {@link #extension(String, String)},
+ * {@link #header(String, String...)} or the public getters.
+ */
+public class ApiErrorException extends RuntimeException {
+
+    private static volatile boolean writableStackTraceByDefault = true;
+
+    private HttpHeaders headers;
+    private transient ProblemDetail body;
+    private boolean sharedBody;
+    private boolean sharedHeaders;
+    private String detailMessageCode;
+    private transient Object[] detailMessageArguments;
+    private String titleMessageCode;
+
+    public ApiErrorException(ProblemDetail body) {
+        this(body, new HttpHeaders());
+    }
+
+    public ApiErrorException(ProblemDetail body, HttpHeaders headers) {
+        this(body, headers, writableStackTraceByDefault);
+    }
+
+    /**
+     * @param writableStackTrace when {@code false} the exception is created without a stack trace and with suppression
+     *                           disabled, which avoids the {@code fillInStackTrace} cost for expected business errors.
+     */
+    public ApiErrorException(ProblemDetail body, HttpHeaders headers, boolean writableStackTrace) {
+        this(body, headers, writableStackTrace, false, false);
+    }
+
+    ApiErrorException(ProblemDetail body, HttpHeaders headers, boolean writableStackTrace, boolean sharedBody, boolean sharedHeaders) {
+        super(body.getDetail(), null, writableStackTrace, writableStackTrace);
+        this.body = body;
+        this.headers = headers;
+        this.sharedBody = sharedBody;
+        this.sharedHeaders = sharedHeaders;
+    }
+
+    public ApiErrorException extension(String field, String value) {
+        mutableBody().setProperty(field, value);
+        return this;
+    }
+
+    public ApiErrorException header(String headerName, String... headerValues) {
+        mutableHeaders().addAll(headerName, List.of(headerValues));
+        return this;
+    }
+
+    /**
+     * @return code of the detail resolved by the exception handler in the request locale, {@code null} when the detail
+     * is sent as is
+     */
+    @Nullable
+    public String getDetailMessageCode() {
+        return detailMessageCode;
+    }
+
+    @Nullable
+    public Object[] getDetailMessageArguments() {
+        return detailMessageArguments;
+    }
+
+    @Nullable
+    public String getTitleMessageCode() {
+        return titleMessageCode;
+    }
+
+    /**
+     * @return the body with its title and detail resolved from their message codes in {@code locale}, as
+     * {@link org.springframework.web.ErrorResponse#updateAndGetBody(MessageSource, Locale)} does
+     */
+    public ProblemDetail updateAndGetBody(@Nullable MessageSource messageSource, Locale locale) {
+        var body = mutableBody();
+        if (messageSource == null) return body;
+        if (detailMessageCode != null) body.setDetail(messageSource.getMessage(detailMessageCode, detailMessageArguments, body.getDetail(), locale));
+        if (titleMessageCode != null) body.setTitle(messageSource.getMessage(titleMessageCode, null, body.getTitle(), locale));
+        return body;
+    }
+
+    public HttpHeaders getHeaders() {
+        return mutableHeaders();
+    }
+
+    public ProblemDetail getBody() {
+        return mutableBody();
+    }
+
+    /**
+     * @return whether the body and headers are still the canonical ones of an {@link ApiErrorTemplate}
+     */
+    public boolean isShared() {
+        return sharedBody && sharedHeaders;
+    }
+
+    ApiErrorException messageCodes(@Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, @Nullable String titleMessageCode) {
+        this.detailMessageCode = detailMessageCode;
+        this.detailMessageArguments = detailMessageArguments;
+        this.titleMessageCode = titleMessageCode;
+        return this;
+    }
+
+    boolean isSharedBody() {
+        return sharedBody;
+    }
+
+    /**
+     * Read only access to the body, without copying a shared one.
+     */
+    ProblemDetail body() {
+        return body;
+    }
+
+    /**
+     * Read only access to the headers, without copying shared ones.
+     */
+    HttpHeaders headers() {
+        return headers;
+    }
+
+    ProblemDetail mutableBody() {
+        if (sharedBody) {
+            body = ApiErrorTemplate.copyOf(body);
+            sharedBody = false;
+        }
+        return body;
+    }
+
+    HttpHeaders mutableHeaders() {
+        if (sharedHeaders) {
+            headers = ApiErrorTemplate.copyOf(headers);
+            sharedHeaders = false;
+        }
+        return headers;
+    }
+
+    public static boolean isWritableStackTraceByDefault() {
+        return writableStackTraceByDefault;
+    }
+
+    /**
+     * Set by {@link ApiErrorStackTraces} in applications, only meant to be called directly without the auto-configuration.
+     * The default is static, so it is shared by every application context of the class loader and the last one to set
+     * it wins.
+     */
+    public static void setWritableStackTraceByDefault(boolean writableStackTrace) {
+        writableStackTraceByDefault = writableStackTrace;
+    }
+
+    /**
+     * @param stackless override of one throw, {@code null} for the default
+     */
+    static boolean isWritableStackTrace(@Nullable Boolean stackless) {
+        return stackless != null ? !stackless : writableStackTraceByDefault;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.ketoru.springframework.errors;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesAware;
+import com.ketoru.springframework.errors.storm.ErrorStormBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Single owner of the stack trace default of {@link ApiErrorException}, which is global since the exceptions are
+ * created before any handler sees them. Stack traces are kept unless {@code stackless-api-errors} is set, and dropped
+ * during an error storm. {@code log-errors} and {@code send-stack-trace} don't keep them: the handlers never log or
+ * send the trace of an {@link ApiErrorException}.
+ * <p>
+ * The default is static, with several application contexts in one class loader the last one to apply wins.
+ */
+public class ApiErrorStackTraces implements ErrorsPropertiesAware {
+
+    private boolean stackless;
+    private boolean degraded;
+
+    @Override
+    public synchronized void setErrorsConfiguration(ErrorsProperties properties) {
+        this.stackless = properties.isStacklessApiErrors();
+        apply();
+    }
+
+    @Autowired(required = false)
+    public synchronized void setErrorStormBreaker(ErrorStormBreaker stormBreaker) {
+        stormBreaker.addListener((previous, current, errorRate) -> degraded(current == ErrorStormBreaker.State.DEGRADED));
+        this.degraded = stormBreaker.isDegraded();
+        apply();
+    }
+
+    private synchronized void degraded(boolean degraded) {
+        this.degraded = degraded;
+        apply();
+    }
+
+    private void apply() {
+        ApiErrorException.setWritableStackTraceByDefault(!stackless && !degraded);
+    }
+}
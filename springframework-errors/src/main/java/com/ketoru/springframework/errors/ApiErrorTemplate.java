@@ -0,0 +1,222 @@
+package com.ketoru.springframework.errors;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable, pre-built {@link ApiError}. The canonical {@link ProblemDetail} and headers are built once and shared by
+ * every {@link ApiErrorException} created from the template; the exception copies them only when
+ * {@link ApiErrorException#extension(String, String)} or {@link ApiErrorException#header(String, String...)} is called.
+ *
+ * @see ApiErrorTemplates
+ */
+@Getter
+public final class ApiErrorTemplate {
+
+    private final HttpStatusCode status;
+    private final String title;
+    private final URI type;
+    private final URI instance;
+    private final String detail;
+    private final Map<String, Object> extensions;
+    private final HttpHeaders headers;
+    @Nullable
+    private final String detailMessageCode;
+    @Nullable
+    private final String titleMessageCode;
+    @Getter(lombok.AccessLevel.NONE)
+    private final ReadOnlyProblemDetail body;
+
+    private ApiErrorTemplate(HttpStatusCode status, String title, URI type, URI instance, String detail, Map<String, Object> extensions, HttpHeaders headers) {
+        this(status, title, type, instance, detail, extensions, headers, null, null);
+    }
+
+    private ApiErrorTemplate(HttpStatusCode status, String title, URI type, URI instance, String detail, Map<String, Object> extensions, HttpHeaders headers, @Nullable String detailMessageCode, @Nullable String titleMessageCode) {
+        this.status = status;
+        this.title = title;
+        this.type = type;
+        this.instance = instance;
+        this.detail = detail;
+        this.extensions = Collections.unmodifiableMap(new LinkedHashMap<>(extensions));
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.detailMessageCode = detailMessageCode;
+        this.titleMessageCode = titleMessageCode;
+        this.body = new ReadOnlyProblemDetail(problemDetail(detail));
+    }
+
+    public static ApiErrorTemplate of(@NotNull HttpStatusCode status, String detail) {
+        return new ApiErrorTemplate(status, null, null, null, detail, Map.of(), new HttpHeaders());
+    }
+
+    public static ApiErrorTemplate of(ApiError apiError, String detail) {
+        return new ApiErrorTemplate(apiError.getStatus(), apiError.getTitle(), apiError.getType(), apiError.getInstance(), detail, apiError.getExtensions(), apiError.getHeaders());
+    }
+
+    /**
+     * Template whose title and detail are resolved in the request locale by the exception handler, {@code title} and
+     * {@code detail} being sent when the message source does not have the codes.
+     */
+    public static ApiErrorTemplate of(ApiError apiError, String detail, @Nullable String detailMessageCode, @Nullable String titleMessageCode) {
+        return new ApiErrorTemplate(apiError.getStatus(), apiError.getTitle(), apiError.getType(), apiError.getInstance(), detail, apiError.getExtensions(), apiError.getHeaders(), detailMessageCode, titleMessageCode);
+    }
+
+    /**
+     * @return an exception sharing the canonical body and headers of this template
+     */
+    public ApiErrorException exception() {
+        return new ApiErrorException(body, headers, ApiErrorException.isWritableStackTraceByDefault(), true, true)
+                .messageCodes(detailMessageCode, null, titleMessageCode);
+    }
+
+    public ApiErrorException detail(String detail) {
+        return new ApiErrorException(problemDetail(detail), headers, ApiErrorException.isWritableStackTraceByDefault(), false, true)
+                .messageCodes(null, null, titleMessageCode);
+    }
+
+    /**
+     * @param detail                 sent when the message source does not have the detail code
+     * @param detailMessageArguments arguments of the detail message
+     */
+    public ApiErrorException detail(String detail, Object[] detailMessageArguments) {
+        return new ApiErrorException(problemDetail(detail), headers, ApiErrorException.isWritableStackTraceByDefault(), false, true)
+                .messageCodes(detailMessageCode, detailMessageArguments, titleMessageCode);
+    }
+
+    public ApiErrorException create(String title, String detail) {
+        var problemDetail = problemDetail(detail);
+        problemDetail.setTitle(title);
+        return new ApiErrorException(problemDetail, headers, ApiErrorException.isWritableStackTraceByDefault(), false, true);
+    }
+
+    public ApiErrorException extension(String key, String value) {
+        return exception().extension(key, value);
+    }
+
+    public ApiErrorException header(String headerName, String... headerValues) {
+        return exception().header(headerName, headerValues);
+    }
+
+    public ApiErrorException headers(MultiValueMap<String, String> headers) {
+        var exception = exception();
+        headers.forEach((name, values) -> exception.header(name, values.toArray(String[]::new)));
+        return exception;
+    }
+
+    /**
+     * The canonical body, read only: it is shared by every exception of the template, any setter throws.
+     */
+    ProblemDetail body() {
+        return body;
+    }
+
+    /**
+     * Marks the template as one of the {@link ApiErrorTemplates}, whose responses may be cached for the lifetime of the
+     * application.
+     */
+    ApiErrorTemplate registered() {
+        body.registered = true;
+        return this;
+    }
+
+    /**
+     * @return whether {@code body} is the canonical body of a registered template
+     */
+    static boolean isRegistered(ProblemDetail body) {
+        return body instanceof ReadOnlyProblemDetail readOnly && readOnly.registered;
+    }
+
+    private ProblemDetail problemDetail(String detail) {
+        var problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(title);
+        if (type != null) problemDetail.setType(type);
+        problemDetail.setInstance(instance);
+        if (!extensions.isEmpty()) problemDetail.setProperties(new LinkedHashMap<>(extensions));
+        return problemDetail;
+    }
+
+    static ProblemDetail copyOf(ProblemDetail source) {
+        var copy = ProblemDetail.forStatusAndDetail(HttpStatusCode.valueOf(source.getStatus()), source.getDetail());
+        copy.setType(source.getType());
+        copy.setTitle(source.getTitle());
+        copy.setInstance(source.getInstance());
+        var properties = source.getProperties();
+        if (properties != null) copy.setProperties(new LinkedHashMap<>(properties));
+        return copy;
+    }
+
+    static HttpHeaders copyOf(HttpHeaders source) {
+        var copy = new HttpHeaders();
+        source.forEach((name, values) -> copy.put(name, new ArrayList<>(values)));
+        return copy;
+    }
+
+    /**
+     * Canonical body of a template. Handed to code that could fill it in, such as the instance Spring MVC sets on
+     * returned bodies, it fails instead of leaking the value into every later response of the template.
+     */
+    static final class ReadOnlyProblemDetail extends ProblemDetail {
+
+        private volatile boolean registered;
+
+        private ReadOnlyProblemDetail(ProblemDetail source) {
+            super(source);
+            if (source.getProperties() != null) super.setProperties(Collections.unmodifiableMap(source.getProperties()));
+        }
+
+        @Override
+        public void setType(@NotNull URI type) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setTitle(@Nullable String title) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setStatus(@NotNull HttpStatus httpStatus) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setStatus(int status) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDetail(@Nullable String detail) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setInstance(@Nullable URI instance) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setProperty(@NotNull String name, @Nullable Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setProperties(@Nullable Map<String, Object> properties) {
+            throw readOnly();
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("The canonical body of an ApiErrorTemplate is shared, copy it first");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ketoru.springframework.errors;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link ApiErrorTemplate}s, one canonical template per {@link HttpStatus} (detail is the reason phrase)
+ * plus the templates registered for application error codes.
+ */
+public final class ApiErrorTemplates {
+
+    private static final ApiErrorTemplate[] BY_STATUS = new ApiErrorTemplate[600];
+    private static final Map<String, ApiErrorTemplate> BY_CODE = new ConcurrentHashMap<>();
+
+    static {
+        for (var status : HttpStatus.values()) {
+            BY_STATUS[status.value()] = ApiErrorTemplate.of(status, status.getReasonPhrase()).registered();
+        }
+    }
+
+    private ApiErrorTemplates() {
+    }
+
+    public static ApiErrorTemplate forStatus(@NotNull HttpStatusCode status) {
+        return forStatus(status.value());
+    }
+
+    public static ApiErrorTemplate forStatus(int status) {
+        var template = status >= 0 && status < BY_STATUS.length ? BY_STATUS[status] : null;
+        return template != null ? template : ApiErrorTemplate.of(HttpStatusCode.valueOf(status), null);
+    }
+
+    public static ApiErrorTemplate register(@NotNull String code, @NotNull ApiErrorTemplate template) {
+        BY_CODE.put(code, template.registered());
+        return template;
+    }
+
+    public static ApiErrorTemplate forCode(@NotNull String code) {
+        var template = BY_CODE.get(code);
+        if (template == null) throw new IllegalArgumentException("No error template registered for code '" + code + "'");
+        return template;
+    }
+}
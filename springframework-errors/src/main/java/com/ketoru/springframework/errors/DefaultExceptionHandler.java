@@ -0,0 +1,434 @@
+package com.ketoru.springframework.errors;
+
+import com.ketoru.springframework.errors.config.ErrorHandlingSettings;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesAware;
+import com.ketoru.springframework.errors.events.ErrorEvent;
+import com.ketoru.springframework.errors.events.ErrorEventPipeline;
+import com.ketoru.springframework.errors.i18n.ConstraintMessageResolver;
+import com.ketoru.springframework.errors.jfr.MessageResolutionEvent;
+import com.ketoru.springframework.errors.jfr.ResponseCreationEvent;
+import com.ketoru.springframework.errors.jfr.ValidationAggregationEvent;
+import com.ketoru.springframework.errors.journal.ErrorJournal;
+import com.ketoru.springframework.errors.metrics.ErrorMetricsListener;
+import com.ketoru.springframework.errors.recent.RecentErrorBuffer;
+import com.ketoru.springframework.errors.schemas.FieldErrorPair;
+import com.ketoru.springframework.errors.storm.ErrorStormBreaker;
+import com.ketoru.springframework.errors.schemas.ValidationErrors;
+import com.ketoru.springframework.errors.support.ExceptionMappings;
+import com.ketoru.springframework.errors.support.PropertyPaths;
+import com.ketoru.springframework.errors.throttle.ClientErrorThrottle;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.log4j.Log4j2;
+import org.apache.tomcat.util.http.fileupload.impl.InvalidContentTypeException;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.*;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Default Exception Handler
+ */
+@Log4j2
+public abstract class DefaultExceptionHandler extends ResponseEntityExceptionHandler implements ErrorsPropertiesAware {
+
+    private static final Method DEFAULT_HANDLER = ReflectionUtils.findMethod(DefaultExceptionHandler.class, "handleDefaultException", Exception.class, WebRequest.class);
+
+    private final ExceptionMappings mappings = new ExceptionMappings(getClass(), DEFAULT_HANDLER, WebRequest.class, ResponseEntity.class);
+    private volatile ErrorHandlingSettings settings = ErrorHandlingSettings.of(new ErrorsProperties());
+    private ErrorMetricsListener[] metricsListeners = new ErrorMetricsListener[0];
+    @Nullable
+    private ErrorEventPipeline eventPipeline;
+    @Nullable
+    private StaticProblemResponses staticResponses;
+    @Nullable
+    private ErrorStormBreaker stormBreaker;
+    @Nullable
+    private RecentErrorBuffer recentErrors;
+    @Nullable
+    private ErrorJournal journal;
+    @Nullable
+    private ConstraintMessageResolver constraintMessages;
+    @Nullable
+    private ClientErrorThrottle clientThrottle;
+
+    @Override
+    public void setErrorsConfiguration(ErrorsProperties properties) {
+        this.settings = ErrorHandlingSettings.of(properties);
+    }
+
+    @Autowired(required = false)
+    public void setErrorMetricsListeners(List<ErrorMetricsListener> listeners) {
+        this.metricsListeners = listeners.toArray(ErrorMetricsListener[]::new);
+    }
+
+    /**
+     * When present, logging and the {@link com.ketoru.springframework.errors.events.ErrorEventListener}s run on the
+     * pipeline worker instead of the request thread.
+     */
+    @Autowired(required = false)
+    public void setErrorEventPipeline(ErrorEventPipeline eventPipeline) {
+        this.eventPipeline = eventPipeline;
+    }
+
+    /**
+     * When present, the constant responses are written from bytes serialized once, see
+     * {@link #createDefaultResponseEntity}.
+     */
+    @Autowired(required = false)
+    public void setStaticProblemResponses(StaticProblemResponses staticResponses) {
+        this.staticResponses = staticResponses;
+    }
+
+    /**
+     * When present, error handling is degraded while the error rate is above {@code error-storm.threshold}: no stack
+     * traces, sampled and brief logging, and template bodies in {@link #createDefaultResponseEntity}.
+     */
+    @Autowired(required = false)
+    public void setErrorStormBreaker(ErrorStormBreaker stormBreaker) {
+        this.stormBreaker = stormBreaker;
+    }
+
+    /**
+     * When present, handled errors are recorded in the buffer. With an {@link ErrorEventPipeline} the buffer is one of
+     * its listeners instead, so it is not written from the request thread, except for the errors an error storm leaves
+     * out of the sampled events.
+     */
+    @Autowired(required = false)
+    public void setRecentErrorBuffer(RecentErrorBuffer recentErrors) {
+        this.recentErrors = recentErrors;
+    }
+
+    /**
+     * When present, handled errors are appended to the journal, by the {@link ErrorEventPipeline} worker when enabled,
+     * like the {@link RecentErrorBuffer}.
+     */
+    @Autowired(required = false)
+    public void setErrorJournal(ErrorJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * When present, constraint violation messages are resolved in the request locale from the message bundles instead
+     * of using the message interpolated by the validator.
+     */
+    @Autowired(required = false)
+    public void setConstraintMessageResolver(ConstraintMessageResolver constraintMessages) {
+        this.constraintMessages = constraintMessages;
+    }
+
+    /**
+     * When present, the handled errors are counted per client, whose requests are then rejected by the throttle filter
+     * once over {@code client-throttle.threshold}.
+     */
+    @Autowired(required = false)
+    public void setClientErrorThrottle(ClientErrorThrottle clientThrottle) {
+        this.clientThrottle = clientThrottle;
+    }
+
+    /**
+     * Exceptions wrapped in an {@link java.lang.reflect.UndeclaredThrowableException},
+     * {@link java.util.concurrent.CompletionException}, {@link java.util.concurrent.ExecutionException} or
+     * {@link java.lang.reflect.InvocationTargetException} are handled by the handler of the wrapped exception.
+     */
+    @ExceptionHandler(Exception.class)
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Object> handleDefaultException(Exception ex, WebRequest request) {
+        var cause = mappings.unwrap(ex);
+        if (cause != null) return (ResponseEntity<Object>) mappings.invoke(this, cause, request);
+        var settings = this.settings;
+        return settings.allErrors()
+                ? createDefaultResponseEntity(ex, new HttpHeaders(), INTERNAL_SERVER_ERROR, ex.getMessage(), "problemDetail.java.lang.Exception.message", new Object[]{ex.getMessage()}, request, settings)
+                : createDefaultResponseEntity(ex, new HttpHeaders(), INTERNAL_SERVER_ERROR, "Internal Server Error", "problemDetail.java.lang.Exception", null, request, settings);
+    }
+
+    @ExceptionHandler(ApiErrorException.class)
+    public ResponseEntity<Object> handleApiErrorException(ApiErrorException ex, WebRequest request) {
+        var start = System.nanoTime();
+        var settings = this.settings;
+        var localized = ex.getDetailMessageCode() != null || ex.getTitleMessageCode() != null;
+        var encoded = ex.isSharedBody() && !localized && useStaticResponses(request, settings) ? staticResponses.get(ex.body()) : null;
+        if (encoded != null) {
+            dispatchEvents(ex, encoded.status(), encoded.body(), request, settings, false);
+            recordMetrics(ex, encoded.status(), encoded.body(), start);
+            return ResponseEntity.status(encoded.status()).headers(ex.headers()).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(encoded.bytes(requestPath(request)));
+        }
+
+        var response = handleApiErrorException(ex);
+        dispatchEvents(ex, response.getStatusCode().value(), response.getBody(), request, settings, false);
+        recordMetrics(ex, response.getStatusCode().value(), response.getBody(), start);
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(response.getBody());
+    }
+
+    /**
+     * The body of {@code ex}, localized when it has message codes. Used by {@link #handleApiErrorException(ApiErrorException, WebRequest)}
+     * when the response is not written from cached bytes.
+     */
+    public ResponseEntity<ProblemDetail> handleApiErrorException(ApiErrorException ex) {
+        // Spring MVC fills in the instance of the returned body, the read only body of a template is copied first
+        var localized = ex.getDetailMessageCode() != null || ex.getTitleMessageCode() != null;
+        var problem = localized ? ex.updateAndGetBody(getMessageSource(), LocaleContextHolder.getLocale()) : ex.mutableBody();
+        return ResponseEntity.status(problem.getStatus()).headers(ex.headers()).body(problem);
+    }
+
+    /**
+     * Fast path for shed requests, only counted: no logging, events or metrics listeners.
+     */
+    @ExceptionHandler(OverloadException.class)
+    public ResponseEntity<Object> handleOverloadException(OverloadException ex) {
+        return ex.toResponseEntity();
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex, WebRequest request) {
+        var start = System.nanoTime();
+        var defaultDetail = "One or more fields are invalid.";
+        var body = createProblemDetail(ex, BAD_REQUEST, defaultDetail, null, null, request);
+
+        var settings = this.settings;
+        var constraintMessages = this.constraintMessages;
+        var locale = LocaleContextHolder.getLocale();
+        var aggregation = new ValidationAggregationEvent();
+        aggregation.begin();
+        var errors = ValidationErrors.of(ex.getConstraintViolations(), settings.maxValidationErrors(), violation -> {
+            var path = violation.getPropertyPath();
+            if (log.isDebugEnabled()) log.debug("Property path: {}, Class bean {}", path, violation.getRootBeanClass());
+            var field = settings.fullPropertyPaths() ? PropertyPaths.fullPath(path) : PropertyPaths.leafName(path);
+            return new FieldErrorPair(field, constraintMessages != null ? constraintMessages.resolve(violation, locale) : violation.getMessage());
+        });
+        errors.addTo(body);
+        aggregation.commit(ex, errors);
+
+        return createResponseEntity(ex, body, new HttpHeaders(), BAD_REQUEST, request, settings, start);
+    }
+
+    @ExceptionHandler(InvalidMediaTypeException.class)
+    public ResponseEntity<Object> handleInvalidMediaTypeException(InvalidMediaTypeException ex, WebRequest request) {
+        var defaultDetail = "The media type '" + ex.getMediaType() + "' is not supported.";
+        var detailMessageArguments = new Object[]{ex.getMediaType()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), BAD_REQUEST, defaultDetail, null, detailMessageArguments, request);
+    }
+
+    @ExceptionHandler(InvalidContentTypeException.class)
+    public ResponseEntity<Object> handleInvalidContentTypeException(InvalidContentTypeException ex, WebRequest request) {
+        var defaultDetail = "Invalid Content Type.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), BAD_REQUEST, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(AccountExpiredException.class)
+    public ResponseEntity<Object> handleAccountExpiredException(AccountExpiredException ex, WebRequest request) {
+        var defaultDetail = "User account has expired.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(AuthenticationCredentialsNotFoundException.class)
+    public ResponseEntity<Object> handleAuthenticationCredentialsNotFoundException(AuthenticationCredentialsNotFoundException ex, WebRequest request) {
+        var defaultDetail = "Authentication credentials were not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<Object> handleBadCredentialsException(BadCredentialsException ex, WebRequest request) {
+        var defaultDetail = "Invalid username or password.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(CredentialsExpiredException.class)
+    public ResponseEntity<Object> handleCredentialsExpiredException(CredentialsExpiredException ex, WebRequest request) {
+        var defaultDetail = "User credentials have expired.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(DisabledException.class)
+    public ResponseEntity<Object> handleDisabledException(DisabledException ex, WebRequest request) {
+        var defaultDetail = "User account is disabled.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(InsufficientAuthenticationException.class)
+    public ResponseEntity<Object> handleInsufficientAuthenticationException(InsufficientAuthenticationException ex, WebRequest request) {
+        var defaultDetail = "Insufficient authentication provided.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(LockedException.class)
+    public ResponseEntity<Object> handleLockedException(LockedException ex, WebRequest request) {
+        var defaultDetail = "User account is locked.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(ProviderNotFoundException.class)
+    public ResponseEntity<Object> handleProviderNotFoundException(ProviderNotFoundException ex, WebRequest request) {
+        var defaultDetail = "Authentication provider not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(UsernameNotFoundException.class)
+    public ResponseEntity<Object> handleUsernameNotFoundException(UsernameNotFoundException ex, WebRequest request) {
+        var defaultDetail = "User not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, request);
+    }
+
+    @ExceptionHandler(AuthenticationServiceException.class)
+    public ResponseEntity<Object> handleAuthenticationServiceException(AuthenticationServiceException ex, WebRequest request) {
+        var defaultDetail = "An error occurred during authentication, detail: " + ex.getMessage();
+        var detailMessageArguments = new Object[]{ex.getMessage()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, detailMessageArguments, request);
+    }
+
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<Object> handleInternalAuthenticationServiceException(InternalAuthenticationServiceException ex, WebRequest request) {
+        var defaultDetail = "An internal error occurred during authentication, detail: " + ex.getMessage();
+        var detailMessageArguments = new Object[]{ex.getMessage()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, detailMessageArguments, request);
+    }
+
+    /**
+     * Without {@code detailMessageArguments} the body only depends on the exception class, the arguments and the locale,
+     * with {@link StaticProblemResponses} it is then serialized once per locale.
+     */
+    protected ResponseEntity<Object> createDefaultResponseEntity(Exception ex, HttpHeaders headers, HttpStatusCode statusCode, String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, WebRequest request) {
+        return createDefaultResponseEntity(ex, headers, statusCode, defaultDetail, detailMessageCode, detailMessageArguments, request, settings);
+    }
+
+    private ResponseEntity<Object> createDefaultResponseEntity(Exception ex, HttpHeaders headers, HttpStatusCode statusCode, String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, WebRequest request, ErrorHandlingSettings settings) {
+        var start = System.nanoTime();
+        if (detailMessageArguments == null && useStaticResponses(request, settings)) {
+            var key = new StaticResponseKey(ex.getClass(), statusCode, defaultDetail, detailMessageCode, LocaleContextHolder.getLocale());
+            var encoded = staticResponses.get(key, () -> createProblemDetail(ex, statusCode, defaultDetail, detailMessageCode, null, request));
+            if (encoded != null) {
+                headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+                return createResponseEntity(ex, encoded, headers, statusCode, request, settings, start);
+            }
+        }
+        var body = stormBreaker != null && stormBreaker.isDegraded()
+                ? ApiErrorTemplate.copyOf(ApiErrorTemplates.forStatus(statusCode).body())
+                : createProblemDetail(ex, statusCode, defaultDetail, detailMessageCode, detailMessageArguments, request);
+        return createResponseEntity(ex, body, headers, statusCode, request, settings, start);
+    }
+
+    /**
+     * The response of the handlers of this class, which are recorded but not logged and get no stack trace.
+     */
+    private ResponseEntity<Object> createResponseEntity(Exception ex, Object body, HttpHeaders headers, HttpStatusCode statusCode, WebRequest request, ErrorHandlingSettings settings, long start) {
+        var event = new ResponseCreationEvent();
+        event.begin();
+        var encoded = body instanceof StaticProblemResponses.Encoded cached ? cached : null;
+        var response = createResponseEntity(encoded != null ? encoded.bytes(requestPath(request)) : body, headers, statusCode, request);
+        dispatchEvents(ex, statusCode.value(), encoded != null ? encoded.body() : body, request, settings, false);
+        recordMetrics(ex, statusCode.value(), encoded != null ? encoded.body() : body, start);
+        event.commit(ex, statusCode.value(), encoded != null);
+        return response;
+    }
+
+    @NotNull
+    @Override
+    protected ProblemDetail createProblemDetail(@NotNull Exception ex, @NotNull HttpStatusCode status, @NotNull String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, @NotNull WebRequest request) {
+        var event = new MessageResolutionEvent();
+        event.begin();
+        var body = super.createProblemDetail(ex, status, defaultDetail, detailMessageCode, detailMessageArguments, request);
+        event.commit(ex, status.value(), detailMessageCode);
+        return body;
+    }
+
+    protected static <T> void addValidationErrors(ProblemDetail body, Collection<T> errors, Function<T, FieldErrorPair> mapper) {
+        addValidationErrors(body, errors, 0, mapper);
+    }
+
+    /**
+     * @param maxErrors maximum number of messages added to the body, {@code 0} for no limit. When exceeded the body also
+     *                  gets the {@code truncated} and {@code totalErrors} properties.
+     */
+    protected static <T> void addValidationErrors(ProblemDetail body, Collection<T> errors, int maxErrors, Function<T, FieldErrorPair> mapper) {
+        ValidationErrors.of(errors, maxErrors, mapper).addTo(body);
+    }
+
+    /**
+     * Records the error in the client throttle, storm breaker, recent buffer, journal and event pipeline.
+     *
+     * @param logged whether {@code log-errors} and {@code send-stack-trace} apply, only to the exceptions handled by
+     *               {@link ResponseEntityExceptionHandler} as before these recordings
+     */
+    private void dispatchEvents(Exception ex, int status, @Nullable Object body, @Nullable WebRequest request, ErrorHandlingSettings settings, boolean logged) {
+        if (clientThrottle != null && request instanceof ServletWebRequest servletWebRequest) clientThrottle.record(servletWebRequest.getRequest(), status);
+        var degraded = stormBreaker != null && stormBreaker.record();
+        var sampled = !degraded || stormBreaker.sample();
+        // the buffer and the journal get every error, from the pipeline for the published ones
+        var published = eventPipeline != null && sampled;
+        if (recentErrors != null && !published) recentErrors.record(ex, status, requestPath(request), System.currentTimeMillis());
+        if (journal != null && !published) journal.append(ex, status, System.currentTimeMillis());
+        if (degraded) {
+            if (published) eventPipeline.publish(new ErrorEvent(ex, status, typeOf(body), requestPath(request), System.currentTimeMillis(), logged));
+            else if (logged && sampled && settings.logErrors()) settings.errorLogger().logBrief(ex, status);
+            return;
+        }
+        if (published) eventPipeline.publish(new ErrorEvent(ex, status, typeOf(body), requestPath(request), System.currentTimeMillis(), logged));
+        else if (logged && settings.logErrors()) settings.errorLogger().log(ex, status);
+        if (logged && settings.sendStackTrace() && body instanceof ProblemDetail problemDetail) problemDetail.setProperty("stackTrace", settings.stackTraceRenderer().render(ex));
+    }
+
+    private void recordMetrics(Exception ex, int status, @Nullable Object body, long start) {
+        if (metricsListeners.length == 0) return;
+        var duration = System.nanoTime() - start;
+        var type = typeOf(body);
+        for (var listener : metricsListeners) listener.onErrorHandled(ex.getClass(), status, type, duration);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(@NotNull Exception ex, @Nullable Object body, @NotNull HttpHeaders headers, @NotNull HttpStatusCode statusCode, @NotNull WebRequest request) {
+        return handleExceptionInternal(ex, body, headers, statusCode, request, settings, System.nanoTime());
+    }
+
+    private ResponseEntity<Object> handleExceptionInternal(Exception ex, @Nullable Object body, HttpHeaders headers, HttpStatusCode statusCode, WebRequest request, ErrorHandlingSettings settings, long start) {
+        var event = new ResponseCreationEvent();
+        event.begin();
+        var response = super.handleExceptionInternal(ex, body, headers, statusCode, request);
+        var responseBody = response != null ? response.getBody() : body;
+        var status = response != null ? response.getStatusCode().value() : statusCode.value();
+        dispatchEvents(ex, status, responseBody, request, settings, true);
+        recordMetrics(ex, status, responseBody, start);
+        event.commit(ex, status, false);
+        return response;
+    }
+
+    private boolean useStaticResponses(WebRequest request, ErrorHandlingSettings settings) {
+        return staticResponses != null && !settings.sendStackTrace() && StaticProblemResponses.isAcceptable(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Nullable
+    private static URI typeOf(@Nullable Object body) {
+        return body instanceof ProblemDetail problemDetail ? problemDetail.getType() : null;
+    }
+
+    /**
+     * @param request {@code null} to take the request bound to the current thread
+     */
+    @Nullable
+    private static String requestPath(@Nullable WebRequest request) {
+        if (request instanceof ServletWebRequest servletWebRequest) return servletWebRequest.getRequest().getRequestURI();
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ? attributes.getRequest().getRequestURI() : null;
+    }
+
+    private record StaticResponseKey(Class<?> exceptionType, HttpStatusCode status, String defaultDetail, @Nullable String detailMessageCode, Locale locale) {
+    }
+}
@@ -0,0 +1,206 @@
+package com.ketoru.springframework.errors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesRefresher;
+import com.ketoru.springframework.errors.config.ErrorsRuntimeHints;
+import com.ketoru.springframework.errors.events.ErrorEventListener;
+import com.ketoru.springframework.errors.events.ErrorEventPipeline;
+import com.ketoru.springframework.errors.events.ErrorLoggingListener;
+import com.ketoru.springframework.errors.i18n.ConstraintMessageResolver;
+import com.ketoru.springframework.errors.i18n.ErrorMessageCatalog;
+import com.ketoru.springframework.errors.journal.ErrorJournal;
+import com.ketoru.springframework.errors.metrics.ErrorMetrics;
+import com.ketoru.springframework.errors.metrics.MicrometerErrorMetricsListener;
+import com.ketoru.springframework.errors.recent.RecentErrorBuffer;
+import com.ketoru.springframework.errors.recent.RecentErrorsEndpoint;
+import com.ketoru.springframework.errors.storm.ErrorStormBreaker;
+import com.ketoru.springframework.errors.storm.ErrorStormListener;
+import com.ketoru.springframework.errors.throttle.ClientErrorThrottle;
+import com.ketoru.springframework.errors.throttle.ClientKeyResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Auto-configuration of the library.
+ */
+@Log4j2
+@AutoConfiguration(
+        beforeName = "org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration",
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+)
+@EnableConfigurationProperties
+@Import({ErrorsProperties.class, ErrorsPropertiesRefresher.class})
+@ImportRuntimeHints(ErrorsRuntimeHints.class)
+public class ErrorsConfiguration {
+
+    static final String MESSAGES_BASENAME = "lang/error-messages";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public static MessageSource messageSource(ErrorsProperties properties) {
+        log.info("Configuring message source for i18n");
+        if (!properties.isReloadableMessages()) return ErrorMessageCatalog.load(MESSAGES_BASENAME);
+
+        var messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasenames("classpath:" + MESSAGES_BASENAME);
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setCacheSeconds(1);
+        return messageSource;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ApiErrorStackTraces apiErrorStackTraces() {
+        return new ApiErrorStackTraces();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "metrics-enabled", matchIfMissing = true)
+    public ErrorMetrics errorMetrics(ErrorsProperties properties) {
+        return new ErrorMetrics(properties.getMetrics());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "events.async", havingValue = "true")
+    public ErrorEventPipeline errorEventPipeline(ErrorsProperties properties, ObjectProvider<ErrorEventListener> listeners) {
+        return new ErrorEventPipeline(properties.getEvents(), listeners.orderedStream().toList());
+    }
+
+    /**
+     * Always registered with the pipeline, it checks {@code log-errors} on each event so the property can be refreshed.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "events.async", havingValue = "true")
+    public ErrorLoggingListener errorLoggingListener(ErrorsProperties properties) {
+        return ErrorLoggingListener.of(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "static-responses.enabled", havingValue = "true")
+    public StaticProblemResponses staticProblemResponses(ErrorsProperties properties, ObjectProvider<ObjectMapper> objectMapper) {
+        var mapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build());
+        return new StaticProblemResponses(mapper, properties.getStaticResponses().getMaxEntries());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OverloadResponses overloadResponses(ErrorsProperties properties, ObjectProvider<ObjectMapper> objectMapper) {
+        var mapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build());
+        return new OverloadResponses(properties.getOverload(), mapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "error-storm.enabled", havingValue = "true")
+    public ErrorStormBreaker errorStormBreaker(ErrorsProperties properties, ObjectProvider<ErrorStormListener> listeners) {
+        var breaker = new ErrorStormBreaker(properties.getErrorStorm());
+        listeners.orderedStream().forEach(breaker::addListener);
+        return breaker;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "recent-errors.enabled", havingValue = "true")
+    public RecentErrorBuffer recentErrorBuffer(ErrorsProperties properties) {
+        return new RecentErrorBuffer(properties.getRecentErrors(), properties.getLogThrottle().getFingerprintFrames());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "journal.enabled", havingValue = "true")
+    public ErrorJournal errorJournal(ErrorsProperties properties) {
+        log.info("Writing the error journal to {}", properties.getJournal().getDirectory());
+        return new ErrorJournal(properties.getJournal(), properties.getStackTrace(), properties.getLogThrottle().getFingerprintFrames());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "constraint-messages.enabled", havingValue = "true")
+    public ConstraintMessageResolver constraintMessageResolver(ErrorsProperties properties, MessageSource messageSource) {
+        return new ConstraintMessageResolver(properties.getConstraintMessages(), messageSource);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "client-throttle.enabled", havingValue = "true")
+    static class ClientThrottleConfiguration {
+
+        static final int DEFAULT_FILTER_ORDER = -200;
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ClientErrorThrottle clientErrorThrottle(ErrorsProperties properties, ObjectProvider<ClientKeyResolver> keyResolver) {
+            var throttle = properties.getClientThrottle();
+            return new ClientErrorThrottle(throttle, keyResolver.getIfAvailable(() -> ClientKeyResolver.of(throttle)));
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(name = "clientErrorThrottleFilter")
+        public FilterRegistrationBean<LoadSheddingFilter> clientErrorThrottleFilter(ClientErrorThrottle throttle, OverloadResponses responses, ErrorsProperties properties, ObjectProvider<SecurityProperties> security) {
+            var registration = new FilterRegistrationBean<>(new LoadSheddingFilter(responses, throttle));
+            registration.setOrder(filterOrder(properties.getClientThrottle(), security.getIfAvailable(SecurityProperties::new).getFilter().getOrder()));
+            return registration;
+        }
+
+        /**
+         * The principal is set by the Spring Security filter chain: run before it, the filter would look the client up
+         * by its address while the exception handler counts its errors under the principal, and never reject it.
+         */
+        static int filterOrder(ErrorsProperties.ClientThrottle throttle, int securityOrder) {
+            var order = throttle.getFilterOrder();
+            if (throttle.getKey() != ClientKeyResolver.Source.PRINCIPAL) return order != null ? order : DEFAULT_FILTER_ORDER;
+            if (order == null) return securityOrder + 1;
+            if (order <= securityOrder) throw new IllegalStateException("client-throttle.filter-order " + order + " must be after the Spring Security filter chain (" + securityOrder + ") with key principal");
+            return order;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "recent-errors.enabled", havingValue = "true")
+    static class RecentErrorsEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RecentErrorsEndpoint recentErrorsEndpoint(RecentErrorBuffer buffer, ErrorsProperties properties) {
+            return new RecentErrorsEndpoint(buffer, properties.getRecentErrors());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = ErrorsProperties.PREFIX, name = "metrics-enabled", matchIfMissing = true)
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnBean(MeterRegistry.class)
+        public MicrometerErrorMetricsListener micrometerErrorMetricsListener(MeterRegistry registry, ErrorsProperties properties) {
+            return new MicrometerErrorMetricsListener(registry, properties.getMetrics());
+        }
+    }
+}
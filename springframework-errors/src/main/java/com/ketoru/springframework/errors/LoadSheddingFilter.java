@@ -0,0 +1,60 @@
+package com.ketoru.springframework.errors;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests with a preallocated {@link OverloadResponses} response before they reach the dispatcher, whenever
+ * the {@link LoadShedder} says so.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final OverloadResponses responses;
+    private final LoadShedder shedder;
+
+    public LoadSheddingFilter(OverloadResponses responses, LoadShedder shedder) {
+        this.responses = responses;
+        this.shedder = shedder;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain filterChain) throws ServletException, IOException {
+        var rejection = shedder.shed(request, responses);
+        if (rejection != null) write(response, rejection);
+        else filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Writes the response directly to the servlet response, for filters rejecting requests before they reach the
+     * dispatcher.
+     */
+    public static void write(HttpServletResponse response, OverloadException ex) throws IOException {
+        ex.markRejected();
+        var bytes = ex.bytes();
+        response.setStatus(ex.getStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, ex.headers().getFirst(HttpHeaders.RETRY_AFTER));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    @FunctionalInterface
+    public interface LoadShedder {
+
+        /**
+         * @return the response rejecting the request, such as {@link OverloadResponses#tooManyRequests()}, or
+         * {@code null} to let it through
+         */
+        @Nullable
+        OverloadException shed(HttpServletRequest request, OverloadResponses responses);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ketoru.springframework.errors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.io.Serial;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Preallocated, stackless 429 or 503 {@link ApiErrorException} with a fixed {@code Retry-After}, created by
+ * {@link OverloadResponses}. The same instance is thrown by every request, so it cannot be modified: the getters return
+ * copies and {@link #extension(String, String)} and {@link #header(String, String...)} are not supported.
+ */
+public final class OverloadException extends ApiErrorException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int retryAfterSeconds;
+    private final transient StaticProblemResponses.Encoded encoded;
+    private final transient LongAdder rejected;
+
+    OverloadException(ProblemDetail body, HttpHeaders headers, int retryAfterSeconds, StaticProblemResponses.Encoded encoded, LongAdder rejected) {
+        super(body, headers, false, true, true);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.encoded = encoded;
+        this.rejected = rejected;
+    }
+
+    public int getStatus() {
+        return encoded.status();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public ApiErrorException extension(String field, String value) {
+        throw new UnsupportedOperationException("Overload responses are preallocated and cannot be modified");
+    }
+
+    @Override
+    public ApiErrorException header(String headerName, String... headerValues) {
+        throw new UnsupportedOperationException("Overload responses are preallocated and cannot be modified");
+    }
+
+    @Override
+    ProblemDetail mutableBody() {
+        return ApiErrorTemplate.copyOf(body());
+    }
+
+    @Override
+    HttpHeaders mutableHeaders() {
+        return ApiErrorTemplate.copyOf(headers());
+    }
+
+    /**
+     * Counts the rejection and returns the response with the serialized body.
+     */
+    public ResponseEntity<Object> toResponseEntity() {
+        markRejected();
+        return ResponseEntity.status(getStatus()).headers(headers()).contentType(MediaType.APPLICATION_PROBLEM_JSON).body(bytes());
+    }
+
+    /**
+     * @return the serialized body, without instance so the bytes are the same for every request
+     */
+    byte[] bytes() {
+        return encoded.bytes(null);
+    }
+
+    void markRejected() {
+        rejected.increment();
+    }
+}
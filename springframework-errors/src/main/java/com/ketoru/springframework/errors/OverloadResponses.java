@@ -0,0 +1,97 @@
+package com.ketoru.springframework.errors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Responses for shed requests. Every {@code 429 Too Many Requests} and {@code 503 Service Unavailable} is preallocated,
+ * one {@link OverloadException} per {@code Retry-After} second up to {@code overload.max-retry-after}, with its body
+ * serialized at startup. Throwing them only costs the counter update: they are handled by
+ * {@link DefaultExceptionHandler#handleOverloadException} without logging, events or latency metrics, and
+ * {@link LoadSheddingFilter} sends them before the MVC dispatch.
+ */
+public final class OverloadResponses {
+
+    private final int retryAfter;
+    private final int retryAfterJitter;
+    private final OverloadException[] tooManyRequests;
+    private final OverloadException[] serviceUnavailable;
+    private final LongAdder tooManyRequestsRejected = new LongAdder();
+    private final LongAdder serviceUnavailableRejected = new LongAdder();
+
+    public OverloadResponses(ErrorsProperties.Overload properties, ObjectMapper objectMapper) {
+        var maxRetryAfter = seconds(properties.getMaxRetryAfter());
+        this.retryAfter = Math.min(seconds(properties.getRetryAfter()), maxRetryAfter);
+        this.retryAfterJitter = Math.min(seconds(properties.getRetryAfterJitter()), maxRetryAfter - retryAfter);
+        var serializer = new StaticProblemResponses(objectMapper, 2);
+        this.tooManyRequests = preallocate(HttpStatus.TOO_MANY_REQUESTS, maxRetryAfter, serializer, tooManyRequestsRejected);
+        this.serviceUnavailable = preallocate(HttpStatus.SERVICE_UNAVAILABLE, maxRetryAfter, serializer, serviceUnavailableRejected);
+    }
+
+    private static OverloadException[] preallocate(HttpStatus status, int maxRetryAfter, StaticProblemResponses serializer, LongAdder rejected) {
+        var body = ApiErrorTemplates.forStatus(status).exception().body();
+        var encoded = serializer.get(body);
+        if (encoded == null) throw new IllegalStateException("Cannot serialize the " + status + " response");
+
+        var exceptions = new OverloadException[maxRetryAfter + 1];
+        for (var seconds = 0; seconds <= maxRetryAfter; seconds++) {
+            var headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, Integer.toString(seconds));
+            exceptions[seconds] = new OverloadException(body, HttpHeaders.readOnlyHttpHeaders(headers), seconds, encoded, rejected);
+        }
+        return exceptions;
+    }
+
+    /**
+     * @return a 429 whose {@code Retry-After} is {@code overload.retry-after} plus a random part of
+     * {@code overload.retry-after-jitter}, so the rejected clients do not all come back at once
+     */
+    public OverloadException tooManyRequests() {
+        return tooManyRequests[retryAfter + jitter()];
+    }
+
+    /**
+     * @param retryAfter rounded up to seconds and capped to {@code overload.max-retry-after}
+     */
+    public OverloadException tooManyRequests(Duration retryAfter) {
+        return tooManyRequests[bucket(retryAfter)];
+    }
+
+    /**
+     * @see #tooManyRequests()
+     */
+    public OverloadException serviceUnavailable() {
+        return serviceUnavailable[retryAfter + jitter()];
+    }
+
+    public OverloadException serviceUnavailable(Duration retryAfter) {
+        return serviceUnavailable[bucket(retryAfter)];
+    }
+
+    public long getTooManyRequestsRejected() {
+        return tooManyRequestsRejected.sum();
+    }
+
+    public long getServiceUnavailableRejected() {
+        return serviceUnavailableRejected.sum();
+    }
+
+    private int jitter() {
+        return retryAfterJitter > 0 ? ThreadLocalRandom.current().nextInt(retryAfterJitter + 1) : 0;
+    }
+
+    private int bucket(Duration retryAfter) {
+        var seconds = retryAfter.isNegative() ? 0 : retryAfter.toSeconds() + (retryAfter.toNanosPart() > 0 ? 1 : 0);
+        return (int) Math.min(seconds, tooManyRequests.length - 1);
+    }
+
+    private static int seconds(Duration duration) {
+        return (int) Math.max(0, Math.min(duration.toSeconds(), 3600));
+    }
+}
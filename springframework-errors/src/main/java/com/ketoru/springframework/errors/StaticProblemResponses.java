@@ -0,0 +1,169 @@
+package com.ketoru.springframework.errors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the serialized bodies of constant problem responses. Each body is serialized once, with a placeholder
+ * {@code instance} that is replaced by the request path on write, the same value Spring MVC fills in for a
+ * {@link ProblemDetail} without instance.
+ */
+public final class StaticProblemResponses {
+
+    private static final URI INSTANCE_PLACEHOLDER = URI.create("urn:ketoru:instance");
+    private static final byte[] PLACEHOLDER_BYTES = ("\"" + INSTANCE_PLACEHOLDER + "\"").getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<Object, Encoded> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxEntries maximum number of cached bodies, once reached the bodies not cached yet are serialized as usual
+     */
+    public StaticProblemResponses(ObjectMapper objectMapper, int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param canonical the canonical body of an {@link ApiErrorTemplate}, cached by identity
+     * @return the encoded body, {@code null} when the template is not one of the {@link ApiErrorTemplates}: ad-hoc
+     * templates come and go and would fill the cache
+     */
+    @Nullable
+    public Encoded get(ProblemDetail canonical) {
+        if (!ApiErrorTemplate.isRegistered(canonical)) return null;
+        return get(new Identity(canonical), () -> canonical);
+    }
+
+    /**
+     * @param body creates the body on the first call for {@code key}, it must only depend on the key
+     * @return the encoded body, {@code null} when the cache is full and the key is not cached yet
+     */
+    @Nullable
+    public Encoded get(Object key, Supplier<ProblemDetail> body) {
+        var encoded = cache.get(key);
+        if (encoded != null || cache.size() >= maxEntries) return encoded;
+        return cache.computeIfAbsent(key, k -> encode(body.get()));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @param accept the {@code Accept} header of the request
+     * @return whether the cached bytes can be sent, as {@code application/problem+json} like Spring MVC does when the
+     * client accepts problem or plain JSON
+     */
+    public static boolean isAcceptable(@Nullable String accept) {
+        if (accept == null || accept.isEmpty()) return true;
+        for (var mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON) || mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) return true;
+        }
+        return false;
+    }
+
+    private Encoded encode(ProblemDetail body) {
+        try {
+            var plain = objectMapper.writeValueAsBytes(body);
+            if (body.getInstance() != null) return new Encoded(body, plain, null, null);
+
+            var placeholder = ApiErrorTemplate.copyOf(body);
+            placeholder.setInstance(INSTANCE_PLACEHOLDER);
+            var bytes = objectMapper.writeValueAsBytes(placeholder);
+            var at = indexOf(bytes, PLACEHOLDER_BYTES);
+            if (at < 0) return new Encoded(body, plain, null, null);
+            return new Encoded(body, plain, Arrays.copyOf(bytes, at), Arrays.copyOfRange(bytes, at + PLACEHOLDER_BYTES.length, bytes.length));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize problem detail " + body, ex);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (var i = 0; i <= bytes.length - target.length; i++) {
+            for (var j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Serialized form of a constant body.
+     */
+    public static final class Encoded {
+
+        private final ProblemDetail body;
+        private final byte[] plain;
+        @Nullable
+        private final byte[] prefix;
+        @Nullable
+        private final byte[] suffix;
+
+        private Encoded(ProblemDetail body, byte[] plain, @Nullable byte[] prefix, @Nullable byte[] suffix) {
+            this.body = body;
+            this.plain = plain;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * @return the body that was serialized, must not be modified
+         */
+        public ProblemDetail body() {
+            return body;
+        }
+
+        public int status() {
+            return body.getStatus();
+        }
+
+        /**
+         * @param instance the request path, ignored when the body has its own instance
+         */
+        public byte[] bytes(@Nullable String instance) {
+            if (prefix == null || suffix == null || instance == null) return plain;
+            var quoted = JsonStringEncoder.getInstance().quoteAsUTF8(instance);
+            var bytes = new byte[prefix.length + quoted.length + 2 + suffix.length];
+            System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+            var at = prefix.length;
+            bytes[at++] = '"';
+            System.arraycopy(quoted, 0, bytes, at, quoted.length);
+            at += quoted.length;
+            bytes[at++] = '"';
+            System.arraycopy(suffix, 0, bytes, at, suffix.length);
+            return bytes;
+        }
+    }
+
+    private record Identity(ProblemDetail body) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity identity && identity.body == body;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(body);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ketoru.springframework.errors.catalog;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an enum of application error codes, each constant annotated with {@link ErrorCode}. The
+ * {@code springframework-errors-processor} annotation processor generates, next to the enum, a {@code <Enum>Catalog}
+ * class with, per constant:
+ * <ul>
+ *     <li>the code and the message keys, {@code problemDetail.<enum>.<CONSTANT>} for the detail and
+ *     {@code problemDetail.title.<enum>.<CONSTANT>} for the title;</li>
+ *     <li>the {@code type} {@link java.net.URI}, validated at build time;</li>
+ *     <li>an {@link com.ketoru.springframework.errors.ApiErrorTemplate} registered in
+ *     {@link com.ketoru.springframework.errors.ApiErrorTemplates} under the code;</li>
+ *     <li>a factory method returning the {@link com.ketoru.springframework.errors.ApiErrorException}, with one parameter
+ *     per detail message argument.</li>
+ * </ul>
+ * The build fails when a message key is missing from one of the {@link #bundle()} files or when its arguments do not
+ * match {@link ErrorCode#arguments()}. Title and detail are resolved in the request locale by the exception handlers.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface ErrorCatalog {
+
+    /**
+     * Base of the relative {@link ErrorCode#type()}s, e.g. {@code https://errors.example.com/}.
+     */
+    String typeBase() default "";
+
+    /**
+     * Classpath basename of the bundles every message is checked against, the {@code *.properties} files with this
+     * prefix and a locale suffix included.
+     */
+    String bundle() default "lang/error-messages";
+}
@@ -0,0 +1,30 @@
+package com.ketoru.springframework.errors.catalog;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Error code of an {@link ErrorCatalog} enum.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.CLASS)
+public @interface ErrorCode {
+
+    /**
+     * HTTP status of the response.
+     */
+    int status();
+
+    /**
+     * {@code type} of the problem, relative to {@link ErrorCatalog#typeBase()}. Defaults to the constant name in kebab
+     * case, or no type when there is no base either.
+     */
+    String type() default "";
+
+    /**
+     * Names of the detail message arguments {@code {0}}, {@code {1}}..., the parameters of the generated factory method.
+     */
+    String[] arguments() default {};
+}
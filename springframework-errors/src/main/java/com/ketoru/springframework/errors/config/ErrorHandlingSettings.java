@@ -0,0 +1,31 @@
+package com.ketoru.springframework.errors.config;
+
+import com.ketoru.springframework.errors.logging.ErrorLogger;
+import com.ketoru.springframework.errors.support.StackTraceRenderer;
+
+/**
+ * Immutable view of the {@link ErrorsProperties} the exception handlers read on every error. Handlers keep it in a
+ * single volatile field, so a refresh is seen as a whole or not at all.
+ */
+public record ErrorHandlingSettings(
+        boolean allErrors,
+        boolean logErrors,
+        boolean sendStackTrace,
+        int maxValidationErrors,
+        boolean fullPropertyPaths,
+        ErrorLogger errorLogger,
+        StackTraceRenderer stackTraceRenderer
+) {
+
+    public static ErrorHandlingSettings of(ErrorsProperties properties) {
+        return new ErrorHandlingSettings(
+                properties.isAllErrors(),
+                properties.isLogErrors(),
+                properties.isSendStackTrace(),
+                properties.getMaxValidationErrors(),
+                properties.isFullPropertyPaths(),
+                new ErrorLogger(properties.getLogThrottle()),
+                new StackTraceRenderer(properties.getStackTrace())
+        );
+    }
+}
@@ -0,0 +1,320 @@
+package com.ketoru.springframework.errors.config;
+
+import lombok.Data;
+import com.ketoru.springframework.errors.events.ErrorEventPipeline;
+import com.ketoru.springframework.errors.support.StackTraceRenderer;
+import com.ketoru.springframework.errors.throttle.ClientKeyResolver;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = ErrorsProperties.PREFIX)
+public class ErrorsProperties {
+
+    public static final String PREFIX = "com.ketoru.springframework.errors";
+
+    private boolean allErrors = false;
+    private boolean logErrors = false;
+    private boolean sendStackTrace = false;
+    /**
+     * Create {@link com.ketoru.springframework.errors.ApiErrorException} without stack trace.
+     */
+    private boolean stacklessApiErrors = false;
+    /**
+     * Maximum number of validation messages sent in a response, {@code 0} for no limit.
+     */
+    private int maxValidationErrors = 0;
+    /**
+     * Report constraint violations with their full indexed path, e.g. {@code items[3].price}, instead of the leaf name.
+     */
+    private boolean fullPropertyPaths = false;
+    /**
+     * Development mode, resolve error messages through a message source that reloads the bundles every second instead
+     * of the catalog compiled at startup.
+     */
+    private boolean reloadableMessages = false;
+    /**
+     * Count handled errors by exception class, status and type, published to Micrometer when present.
+     */
+    private boolean metricsEnabled = true;
+    /**
+     * Tags of the Micrometer {@code errors.handled} timer.
+     */
+    private final Metrics metrics = new Metrics();
+    /**
+     * Deduplication of the errors logged by {@code log-errors}.
+     */
+    private final LogThrottle logThrottle = new LogThrottle();
+    /**
+     * Asynchronous delivery of handled errors to the logging and the {@code ErrorEventListener} beans.
+     */
+    private final Events events = new Events();
+    /**
+     * Rendering of the {@code stackTrace} property added by {@code send-stack-trace}.
+     */
+    private final StackTrace stackTrace = new StackTrace();
+    /**
+     * Serialization of the constant problem responses once, instead of per request.
+     */
+    private final StaticResponses staticResponses = new StaticResponses();
+    /**
+     * Preallocated 429 and 503 responses of {@code OverloadResponses}.
+     */
+    private final Overload overload = new Overload();
+    /**
+     * Degraded error handling while the error rate is above a threshold.
+     */
+    private final ErrorStorm errorStorm = new ErrorStorm();
+    /**
+     * In-memory buffer of the last handled errors, exposed by the {@code errors} actuator endpoint.
+     */
+    private final RecentErrors recentErrors = new RecentErrors();
+    /**
+     * Memory-mapped binary journal of the handled errors, read offline with {@code ErrorJournalCli}.
+     */
+    private final Journal journal = new Journal();
+    /**
+     * Constraint violation messages resolved in the request locale from the message bundles, instead of the message
+     * interpolated by the validator.
+     */
+    private final ConstraintMessages constraintMessages = new ConstraintMessages();
+    /**
+     * Rejection with a 429 of the clients getting too many errors, such as bad credentials or invalid requests, before
+     * their requests reach authentication and validation.
+     */
+    private final ClientThrottle clientThrottle = new ClientThrottle();
+
+    @Data
+    public static class Metrics {
+        /**
+         * Publish percentile histograms of the {@code errors.handled} timers, one set of buckets per tag combination.
+         */
+        private boolean percentileHistogram = false;
+        /**
+         * Maximum number of distinct problem types counted by {@code ErrorMetrics} and tagged on the
+         * {@code errors.handled} timer, further types are counted and tagged as {@code other}.
+         */
+        private int maxTypes = 100;
+    }
+
+    @Data
+    public static class LogThrottle {
+        private boolean enabled = false;
+        /**
+         * Occurrences of the same fingerprint logged in full per window, the following ones are only counted.
+         */
+        private int maxPerWindow = 5;
+        private Duration window = Duration.ofMinutes(1);
+        /**
+         * Minimum time between two summary lines of suppressed occurrences of the same fingerprint.
+         */
+        private Duration summaryInterval = Duration.ofSeconds(10);
+        /**
+         * Number of fingerprints tracked at the same time, rounded up to a power of two.
+         */
+        private int tableSize = 1024;
+        /**
+         * Number of top stack frames that are part of the fingerprint.
+         */
+        private int fingerprintFrames = 5;
+    }
+
+    @Data
+    public static class Events {
+        /**
+         * Log and notify listeners from a worker thread instead of the request thread.
+         */
+        private boolean async = false;
+        private int queueCapacity = 8192;
+        /**
+         * Maximum number of events handed to the listeners at once.
+         */
+        private int batchSize = 256;
+        /**
+         * What to do when the queue is full, drop the event or make the request thread wait for room.
+         */
+        private ErrorEventPipeline.OverflowPolicy overflow = ErrorEventPipeline.OverflowPolicy.DROP;
+        /**
+         * Maximum time to wait for the queued events to be delivered on shutdown.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(5);
+        private boolean virtualThreads = true;
+    }
+
+    @Data
+    public static class StackTrace {
+        /**
+         * Maximum number of frames rendered per throwable, framework frames excluded.
+         */
+        private int maxFrames = 32;
+        /**
+         * Maximum number of causes rendered.
+         */
+        private int maxCauses = 8;
+        /**
+         * Hard limit of the rendered trace, in UTF-8 bytes.
+         */
+        private int maxBytes = 16384;
+        /**
+         * Class name prefixes of the frames collapsed as framework frames.
+         */
+        private List<String> excludedPackages = new ArrayList<>(List.of(
+                "org.apache.catalina.", "org.apache.coyote.", "org.apache.tomcat.", "jakarta.servlet.",
+                "org.springframework.web.servlet.", "org.springframework.web.filter.", "org.springframework.web.method.",
+                "org.springframework.security.web.", "org.springframework.aop.", "org.springframework.cglib.",
+                "jdk.internal.reflect.", "java.lang.reflect.", "java.lang.Thread", "java.util.concurrent.ThreadPoolExecutor"
+        ));
+        private StackTraceRenderer.Format format = StackTraceRenderer.Format.TEXT;
+        /**
+         * Number of rendered traces kept for reuse.
+         */
+        private int cacheSize = 256;
+    }
+
+    @Data
+    public static class StaticResponses {
+        /**
+         * Write cached bytes for the responses that only depend on the exception class and locale, such as
+         * {@code ApiError.unauthorized()} or the Spring Security handlers. Ignored while {@code send-stack-trace} is on.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of cached bodies, the following constant responses are serialized per request.
+         */
+        private int maxEntries = 1024;
+    }
+
+    @Data
+    public static class Overload {
+        /**
+         * Minimum {@code Retry-After} of the responses created without an explicit one.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+        /**
+         * Random time added to {@code retry-after}, spreading the retries of the rejected clients.
+         */
+        private Duration retryAfterJitter = Duration.ofSeconds(2);
+        /**
+         * Longest {@code Retry-After} sent, one response is preallocated per second up to it.
+         */
+        private Duration maxRetryAfter = Duration.ofMinutes(2);
+    }
+
+    @Data
+    public static class ErrorStorm {
+        private boolean enabled = false;
+        /**
+         * Handled errors per second from which error handling is degraded: no stack traces, sampled and brief logging,
+         * template bodies instead of resolved messages.
+         */
+        private double threshold = 100;
+        /**
+         * Full error handling is restored once the rate drops below {@code threshold * recovery-ratio}.
+         */
+        private double recoveryRatio = 0.5;
+        private Duration window = Duration.ofSeconds(10);
+        /**
+         * Number of buckets of the sliding window, the rate is evaluated each time a bucket completes.
+         */
+        private int buckets = 10;
+        /**
+         * While degraded, one in {@code event-sampling} errors is logged and published.
+         */
+        private int eventSampling = 100;
+    }
+
+    @Data
+    public static class RecentErrors {
+        private boolean enabled = false;
+        /**
+         * Number of errors kept, rounded up to a power of two.
+         */
+        private int capacity = 512;
+        /**
+         * Longer exception messages are truncated.
+         */
+        private int maxDetailLength = 256;
+        /**
+         * Default window of the top fingerprints of the endpoint.
+         */
+        private Duration window = Duration.ofMinutes(5);
+        /**
+         * Default number of top fingerprints of the endpoint.
+         */
+        private int topFingerprints = 10;
+    }
+
+    @Data
+    public static class Journal {
+        private boolean enabled = false;
+        private String directory = "error-journal";
+        /**
+         * Size of each memory-mapped segment file, a new one is created when full.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+        /**
+         * Number of segment files kept, the oldest are deleted.
+         */
+        private int maxSegments = 8;
+        /**
+         * Store the compressed stack trace of each error, rendered with the {@code stack-trace} limits.
+         */
+        private boolean stackTraces = true;
+    }
+
+    @Data
+    public static class ConstraintMessages {
+        private boolean enabled = false;
+        /**
+         * Maximum number of message templates cached, each template counted once per locale.
+         */
+        private int cacheSize = 1024;
+    }
+
+    @Data
+    public static class ClientThrottle {
+        private boolean enabled = false;
+        /**
+         * Errors of a client within the window from which its requests are rejected.
+         */
+        private int threshold = 20;
+        private Duration window = Duration.ofMinutes(1);
+        /**
+         * Number of buckets of the sliding window.
+         */
+        private int buckets = 6;
+        /**
+         * How long a client is rejected once over the threshold, sent as {@code Retry-After} up to
+         * {@code overload.max-retry-after}.
+         */
+        private Duration retryAfter = Duration.ofMinutes(1);
+        /**
+         * Statuses of the handled errors counted against the client.
+         */
+        private List<Integer> statuses = new ArrayList<>(List.of(400, 401, 403, 422));
+        /**
+         * What identifies a client. The principal is only known once Spring Security ran, so with {@code principal}
+         * the filter runs after its filter chain.
+         */
+        private ClientKeyResolver.Source key = ClientKeyResolver.Source.REMOTE_ADDRESS;
+        /**
+         * Request header holding the client key with {@code key: header}, such as an API key.
+         */
+        private String keyHeader = "X-API-Key";
+        /**
+         * Number of clients tracked at the same time, rounded up to a power of two.
+         */
+        private int tableSize = 4096;
+        /**
+         * Order of the filter rejecting the throttled clients. Defaults to before the Spring Security filter chain, or
+         * right after it with {@code key: principal}, which fails on an order before the chain.
+         */
+        private Integer filterOrder;
+    }
+}
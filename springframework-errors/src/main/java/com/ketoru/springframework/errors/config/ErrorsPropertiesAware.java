@@ -2,6 +2,10 @@ package com.ketoru.springframework.errors.config;
 
 import org.springframework.beans.factory.Aware;
 
+/**
+ * Receives the {@link ErrorsProperties} at startup and again with each new snapshot of {@link ErrorsPropertiesRefresher},
+ * possibly while requests are being handled.
+ */
 public interface ErrorsPropertiesAware extends Aware {
     void setErrorsConfiguration(ErrorsProperties properties);
 }
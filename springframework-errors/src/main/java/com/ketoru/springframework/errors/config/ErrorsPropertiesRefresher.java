@@ -0,0 +1,127 @@
+package com.ketoru.springframework.errors.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the current {@link ErrorsProperties} snapshot and pushes it to every {@link ErrorsPropertiesAware} bean: the
+ * singletons are looked up once by type after they are created, with no per-bean post-processing, and beans created
+ * later, such as lazy singletons, inject the refresher and {@link #register(ErrorsPropertiesAware)} themselves. A snapshot is never modified: {@link #refresh()} binds a new one from the
+ * environment, on top of the overrides set with {@link #set(String, Object)}, and swaps it in, and {@link #current()}
+ * returns copies. Refreshes run one at a time and deliver the beans in registration order.
+ * <p>
+ * The Spring Cloud {@code EnvironmentChangeEvent} triggers a refresh, matched by name so Spring Cloud stays optional.
+ * Only what the aware beans read per error is refreshed; the sizes of the event queue, caches and other beans created
+ * at startup are not.
+ */
+@Log4j2
+@Component
+public class ErrorsPropertiesRefresher implements ApplicationListener<ApplicationEvent>, SmartInitializingSingleton {
+
+    private static final String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+
+    private final ConfigurableEnvironment environment;
+    private final ObjectProvider<ErrorsPropertiesAware> awareBeans;
+    private final Map<String, Object> overrides = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<ErrorsPropertiesAware> beans = new CopyOnWriteArrayList<>();
+    private volatile ErrorsProperties current;
+
+    public ErrorsPropertiesRefresher(ErrorsProperties properties, ConfigurableEnvironment environment, ObjectProvider<ErrorsPropertiesAware> awareBeans) {
+        this.current = properties;
+        this.environment = environment;
+        this.awareBeans = awareBeans;
+    }
+
+    /**
+     * @return a copy of the current snapshot, use {@link #set(String, Object)} to change it
+     */
+    public ErrorsProperties current() {
+        return copyOf(current);
+    }
+
+    /**
+     * Overrides a property until {@link #reset()}, and refreshes.
+     *
+     * @param name relative to {@link ErrorsProperties#PREFIX}, for example {@code send-stack-trace}
+     */
+    public ErrorsProperties set(String name, Object value) {
+        overrides.put(ErrorsProperties.PREFIX + "." + name, value);
+        return refresh();
+    }
+
+    /**
+     * Drops the overrides, and refreshes.
+     */
+    public ErrorsProperties reset() {
+        overrides.clear();
+        return refresh();
+    }
+
+    public synchronized ErrorsProperties refresh() {
+        var sources = new ArrayList<ConfigurationPropertySource>();
+        ConfigurationPropertySources.from(new MapPropertySource("errorsOverrides", Map.copyOf(overrides))).forEach(sources::add);
+        ConfigurationPropertySources.get(environment).forEach(sources::add);
+        var properties = new Binder(sources, new PropertySourcesPlaceholdersResolver(environment)).bindOrCreate(ErrorsProperties.PREFIX, ErrorsProperties.class);
+        current = properties;
+        for (var bean : beans) bean.setErrorsConfiguration(properties);
+        log.info("Refreshed errors configuration of {} beans", beans.size());
+        return copyOf(properties);
+    }
+
+    /**
+     * Sets the current snapshot on a bean created after startup and the following ones on refresh. The singletons
+     * created at startup are registered already.
+     */
+    public synchronized void register(ErrorsPropertiesAware bean) {
+        if (beans.addIfAbsent(bean)) bean.setErrorsConfiguration(current);
+    }
+
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        awareBeans.orderedStream().forEach(this::register);
+        log.debug("Set errors configuration of {} beans", beans.size());
+    }
+
+    static ErrorsProperties copyOf(ErrorsProperties properties) {
+        var copy = new ErrorsProperties();
+        copy(new BeanWrapperImpl(properties), new BeanWrapperImpl(copy));
+        return copy;
+    }
+
+    /**
+     * Copies the writable properties, lists into new lists, and recurses into the nested groups, which have no setter.
+     */
+    private static void copy(BeanWrapper source, BeanWrapper target) {
+        for (var property : source.getPropertyDescriptors()) {
+            var name = property.getName();
+            if (!source.isReadableProperty(name)) continue;
+            var value = source.getPropertyValue(name);
+            if (target.isWritableProperty(name)) target.setPropertyValue(name, value instanceof List<?> list ? new ArrayList<>(list) : value);
+            else if (value != null && value.getClass().getEnclosingClass() == ErrorsProperties.class) copy(new BeanWrapperImpl(value), new BeanWrapperImpl(target.getPropertyValue(name)));
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(@NotNull ApplicationEvent event) {
+        if (event.getClass().getName().equals(ENVIRONMENT_CHANGE_EVENT)) refresh();
+    }
+}
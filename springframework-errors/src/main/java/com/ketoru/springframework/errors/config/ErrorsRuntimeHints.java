@@ -0,0 +1,42 @@
+package com.ketoru.springframework.errors.config;
+
+import com.ketoru.springframework.errors.recent.RecentErrorsEndpoint;
+import com.ketoru.springframework.errors.schemas.FieldErrorPair;
+import com.ketoru.springframework.errors.schemas.ValidationErrors;
+import com.ketoru.springframework.errors.support.StackTraceRenderer;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hints for Spring AOT and native images: the message bundles, the types serialized to JSON and the exception handler
+ * methods, which are inherited by the application advice and invoked reflectively.
+ */
+public class ErrorsRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] HANDLERS = {
+            "com.ketoru.springframework.errors.DefaultExceptionHandler",
+            "com.ketoru.springframework.errors.reactive.ReactiveDefaultExceptionHandler"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+        hints.resources().registerPattern("lang/error-messages*.properties");
+        hints.resources().registerPattern("lang/constraint-messages*.properties");
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ProblemDetail.class, ValidationErrors.FieldErrors.class, ValidationErrors.GlobalErrors.class, FieldErrorPair.class, StackTraceRenderer.ThrowableTrace.class);
+        if (ClassUtils.isPresent("org.springframework.boot.actuate.endpoint.annotation.Endpoint", classLoader)) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), RecentErrorsEndpoint.Report.class);
+        }
+
+        for (var handler : HANDLERS) {
+            if (ClassUtils.isPresent(handler, classLoader)) hints.reflection().registerType(TypeReference.of(handler), MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
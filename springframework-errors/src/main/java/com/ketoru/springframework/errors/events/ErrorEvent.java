@@ -0,0 +1,19 @@
+package com.ketoru.springframework.errors.events;
+
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+
+/**
+ * A handled error, as published to the {@link ErrorEventPipeline}.
+ *
+ * @param timestamp epoch milliseconds at which the error was handled
+ * @param logged    whether {@code log-errors} applies to the error, {@code false} for the responses the exception handler
+ *                  builds itself such as {@code ApiErrorException}, which are recorded but never logged
+ */
+public record ErrorEvent(Throwable exception, int status, @Nullable URI type, @Nullable String path, long timestamp, boolean logged) {
+
+    public ErrorEvent(Throwable exception, int status, @Nullable URI type, @Nullable String path, long timestamp) {
+        this(exception, status, type, path, timestamp, true);
+    }
+}
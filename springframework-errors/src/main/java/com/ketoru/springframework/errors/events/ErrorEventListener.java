@@ -0,0 +1,19 @@
+package com.ketoru.springframework.errors.events;
+
+import java.util.List;
+
+/**
+ * Consumer of handled errors, invoked by the {@link ErrorEventPipeline} worker thread, off the request path. Register
+ * implementations as beans to audit, log or measure errors.
+ */
+public interface ErrorEventListener {
+
+    void onErrorEvent(ErrorEvent event);
+
+    /**
+     * Called with every drained batch, override to process events in bulk.
+     */
+    default void onErrorEvents(List<ErrorEvent> events) {
+        for (var event : events) onErrorEvent(event);
+    }
+}
@@ -0,0 +1,186 @@
+package com.ketoru.springframework.errors.events;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands handled errors over to a single worker thread that delivers them, in batches, to the
+ * {@link ErrorEventListener}s. The queue is a lock free {@link ConcurrentLinkedQueue} bounded by a CAS reserved
+ * counter; when full, events are dropped or the publisher waits for room, depending on {@link OverflowPolicy}.
+ * <p>
+ * The worker is started and stopped with the application context. On stop the queue is drained before returning, up
+ * to {@code shutdownTimeout}; events published after that are delivered on the publishing thread.
+ */
+@Log4j2
+public class ErrorEventPipeline implements SmartLifecycle {
+
+    /**
+     * Stops after the embedded web server, whose lifecycle runs in phase {@code DEFAULT_PHASE - 2048}, so errors of
+     * in-flight requests are still delivered.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 3072;
+
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(50).toNanos();
+    private static final long FULL_PARK_NANOS = Duration.ofMillis(1).toNanos();
+
+    private final Queue<ErrorEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private final ErrorEventListener[] listeners;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration shutdownTimeout;
+    private final boolean virtualThreads;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public ErrorEventPipeline(ErrorsProperties.Events properties, List<ErrorEventListener> listeners) {
+        this.listeners = listeners.toArray(ErrorEventListener[]::new);
+        this.capacity = properties.getQueueCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.overflowPolicy = properties.getOverflow();
+        this.shutdownTimeout = properties.getShutdownTimeout();
+        this.virtualThreads = properties.isVirtualThreads();
+    }
+
+    /**
+     * Publishes following the configured {@link OverflowPolicy}.
+     *
+     * @return {@code false} when the event was dropped
+     */
+    public boolean publish(ErrorEvent event) {
+        return publish(event, overflowPolicy);
+    }
+
+    /**
+     * Publishes without ever waiting, for callers that must not block such as event loop threads.
+     *
+     * @return {@code false} when the event was dropped
+     */
+    public boolean tryPublish(ErrorEvent event) {
+        return publish(event, OverflowPolicy.DROP);
+    }
+
+    private boolean publish(ErrorEvent event, OverflowPolicy policy) {
+        if (!running) {
+            deliver(List.of(event));
+            return true;
+        }
+        while (true) {
+            var current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) break;
+                continue;
+            }
+            if (policy == OverflowPolicy.DROP || !running) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        queue.offer(event);
+        if (idle.get() && idle.compareAndSet(true, false)) LockSupport.unpark(worker);
+        if (!running) drainRemaining();
+        return true;
+    }
+
+    /**
+     * Delivers, on the calling thread, events that raced with {@link #stop()} and may have missed the worker.
+     */
+    private void drainRemaining() {
+        var batch = new ArrayList<ErrorEvent>();
+        drainTo(batch);
+        if (!batch.isEmpty()) deliver(batch);
+    }
+
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    public int getQueuedEvents() {
+        return size.get();
+    }
+
+    private void consume() {
+        var batch = new ArrayList<ErrorEvent>(batchSize);
+        while (true) {
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+                continue;
+            }
+            if (!running) return;
+            idle.set(true);
+            if (queue.isEmpty() && running) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            idle.set(false);
+        }
+    }
+
+    private void drainTo(List<ErrorEvent> batch) {
+        ErrorEvent event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+    }
+
+    private void deliver(List<ErrorEvent> batch) {
+        for (var listener : listeners) {
+            try {
+                listener.onErrorEvents(batch);
+            } catch (RuntimeException ex) {
+                log.warn("Error event listener {} failed", listener, ex);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        var builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        running = true;
+        worker = builder.name("error-events").start(this::consume);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        var thread = worker;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            if (!thread.join(shutdownTimeout)) log.warn("Error event pipeline did not drain in {}, {} events left", shutdownTimeout, size.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+}
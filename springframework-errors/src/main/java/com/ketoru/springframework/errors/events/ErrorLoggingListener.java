@@ -0,0 +1,43 @@
+package com.ketoru.springframework.errors.events;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesAware;
+import com.ketoru.springframework.errors.logging.ErrorLogger;
+import org.springframework.lang.Nullable;
+
+/**
+ * Moves the {@code log-errors} logging, and its deduplication, to the pipeline worker. Registered as a bean, it follows
+ * the refreshes of {@code log-errors} and {@code log-throttle}.
+ */
+public class ErrorLoggingListener implements ErrorEventListener, ErrorsPropertiesAware {
+
+    @Nullable
+    private volatile ErrorLogger errorLogger;
+
+    /**
+     * @param errorLogger {@code null} while {@code log-errors} is off
+     */
+    public ErrorLoggingListener(@Nullable ErrorLogger errorLogger) {
+        this.errorLogger = errorLogger;
+    }
+
+    public static ErrorLoggingListener of(ErrorsProperties properties) {
+        return new ErrorLoggingListener(errorLogger(properties));
+    }
+
+    @Override
+    public void setErrorsConfiguration(ErrorsProperties properties) {
+        this.errorLogger = errorLogger(properties);
+    }
+
+    @Override
+    public void onErrorEvent(ErrorEvent event) {
+        var errorLogger = this.errorLogger;
+        if (errorLogger != null && event.logged()) errorLogger.log(event.exception(), event.status());
+    }
+
+    @Nullable
+    private static ErrorLogger errorLogger(ErrorsProperties properties) {
+        return properties.isLogErrors() ? new ErrorLogger(properties.getLogThrottle()) : null;
+    }
+}
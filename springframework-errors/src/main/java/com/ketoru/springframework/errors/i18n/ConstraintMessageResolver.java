@@ -0,0 +1,157 @@
+package com.ketoru.springframework.errors.i18n;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import jakarta.validation.ConstraintViolation;
+import org.springframework.context.MessageSource;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves constraint messages in the request locale from their message template, e.g.
+ * {@code {jakarta.validation.constraints.Size.message}}, and the constraint attributes, instead of using the message
+ * the validator interpolated. Message keys are looked up in the application {@link MessageSource}, then in the
+ * {@value BASENAME} bundles, and the attribute placeholders such as {@code {min}} are replaced with the attribute values.
+ * The standard constraint messages live in their own bundles rather than in {@code lang/error-messages*}: in the
+ * application message source they would replace the validator's translations for every validation.
+ * <p>
+ * Each template is compiled once per locale and each compiled template keeps its messages per attribute values, so a
+ * repeated message costs a map lookup. Both caches are bounded, past {@code constraint-messages.cache-size} templates
+ * are compiled on every call. Templates with expressions ({@code ${...}}), escapes or keys missing from the message
+ * source use {@link ConstraintViolation#getMessage()}.
+ */
+public final class ConstraintMessageResolver {
+
+    public static final String BASENAME = "lang/constraint-messages";
+
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_VARIANTS = 64;
+    private static final Compiled UNRESOLVED = new Compiled(null, null, null);
+    /**
+     * Default message telling a missing key apart, {@code null} would be replaced with the code by a message source
+     * using the code as default message.
+     */
+    private static final String MISSING = "\u0000missing";
+
+    private final MessageSource messageSource;
+    private final MessageSource constraintMessages = ErrorMessageCatalog.load(BASENAME);
+    private final int cacheSize;
+    private final Map<TemplateKey, Compiled> templates = new ConcurrentHashMap<>();
+
+    public ConstraintMessageResolver(ErrorsProperties.ConstraintMessages properties, MessageSource messageSource) {
+        this.messageSource = messageSource;
+        this.cacheSize = Math.max(0, properties.getCacheSize());
+    }
+
+    public String resolve(ConstraintViolation<?> violation, Locale locale) {
+        var template = violation.getMessageTemplate();
+        if (template == null) return violation.getMessage();
+        var compiled = compiled(template, locale);
+        if (compiled == UNRESOLVED) return violation.getMessage();
+        if (compiled.attributes.length == 0) return compiled.literals[0];
+
+        var attributes = violation.getConstraintDescriptor().getAttributes();
+        var values = new Object[compiled.attributes.length];
+        for (var i = 0; i < values.length; i++) {
+            var value = attributes.get(compiled.attributes[i]);
+            // not an attribute but a key missing from the message source, or an array, that annotation proxies copy on
+            // each call so it would never hit the cache
+            if (value == null || value.getClass().isArray()) return violation.getMessage();
+            values[i] = value;
+        }
+        var key = Arrays.asList(values);
+        var message = compiled.messages.get(key);
+        if (message != null) return message;
+        message = compiled.format(values);
+        if (compiled.messages.size() < MAX_VARIANTS) compiled.messages.putIfAbsent(key, message);
+        return message;
+    }
+
+    /**
+     * @return number of templates compiled and cached, all locales included
+     */
+    public int getCachedTemplates() {
+        return templates.size();
+    }
+
+    private Compiled compiled(String template, Locale locale) {
+        var key = new TemplateKey(template, locale);
+        var compiled = templates.get(key);
+        if (compiled != null) return compiled;
+        compiled = compile(template, locale);
+        if (templates.size() < cacheSize) templates.putIfAbsent(key, compiled);
+        return compiled;
+    }
+
+    /**
+     * Expands the message keys, up to {@value MAX_DEPTH} levels, and splits the message around the other placeholders,
+     * which are expected to name constraint attributes. A placeholder is a message key when the message source has it,
+     * as with the validator's interpolation.
+     */
+    private Compiled compile(String template, Locale locale) {
+        var literals = new ArrayList<String>();
+        var attributes = new ArrayList<String>();
+        var literal = new StringBuilder();
+        return expand(template, locale, 0, literals, attributes, literal) ? compiled(literals, attributes, literal) : UNRESOLVED;
+    }
+
+    private boolean expand(String message, Locale locale, int depth, List<String> literals, List<String> attributes, StringBuilder literal) {
+        if (message.indexOf('$') >= 0 || message.indexOf('\\') >= 0) return false;
+        var length = message.length();
+        for (var i = 0; i < length; i++) {
+            var c = message.charAt(i);
+            if (c == '}') return false;
+            if (c != '{') {
+                literal.append(c);
+                continue;
+            }
+            var end = message.indexOf('}', i);
+            var next = message.indexOf('{', i + 1);
+            if (end < 0 || next >= 0 && next < end) return false;
+            var name = message.substring(i + 1, end);
+            i = end;
+            var resolved = message(name, locale);
+            if (resolved == null) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                attributes.add(name);
+            } else if (depth == MAX_DEPTH || !expand(resolved, locale, depth + 1, literals, attributes, literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private String message(String code, Locale locale) {
+        var message = messageSource.getMessage(code, null, MISSING, locale);
+        if (message != null && !MISSING.equals(message)) return message;
+        return constraintMessages.getMessage(code, null, null, locale);
+    }
+
+    private static Compiled compiled(List<String> literals, List<String> attributes, StringBuilder literal) {
+        literals.add(literal.toString());
+        return new Compiled(literals.toArray(String[]::new), attributes.toArray(String[]::new), new ConcurrentHashMap<>());
+    }
+
+    private record TemplateKey(String template, Locale locale) {
+    }
+
+    /**
+     * @param literals   the text around the attribute placeholders, one more than the attributes
+     * @param attributes names of the constraint attributes, in the order they appear in the message
+     */
+    private record Compiled(String[] literals, String[] attributes, Map<List<Object>, String> messages) {
+
+        String format(Object[] values) {
+            var builder = new StringBuilder(64);
+            for (var i = 0; i < attributes.length; i++) builder.append(literals[i]).append(values[i]);
+            return builder.append(literals[attributes.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ketoru.springframework.errors.i18n;
+
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.HierarchicalMessageSource;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MessageSource} compiled once from every {@code <basename>*.properties} bundle on the classpath. Each known
+ * locale gets a single map from message code to pre-parsed {@link MessageTemplate}, already merged with its fallbacks
+ * ({@code es_EC} then {@code es}, then the JVM default locale as with the {@code fallbackToSystemLocale} of
+ * {@link org.springframework.context.support.ReloadableResourceBundleMessageSource}, then the default bundle), so
+ * resolving a message is a map lookup plus the argument substitution; there is no lock and no reload check.
+ * <p>
+ * When the same bundle is found in several jars the first one on the classpath wins, so applications can override the
+ * library messages with their own {@code lang/error-messages*.properties}.
+ */
+@Log4j2
+public class ErrorMessageCatalog implements HierarchicalMessageSource {
+
+    private static final int MAX_CACHED_LOCALES = 256;
+
+    private final Map<Locale, Map<String, MessageTemplate>> bundles;
+    private final Map<Locale, Map<String, MessageTemplate>> byLocale = new ConcurrentHashMap<>();
+    @Nullable
+    private MessageSource parentMessageSource;
+
+    ErrorMessageCatalog(Map<Locale, Map<String, MessageTemplate>> bundles) {
+        this.bundles = bundles;
+    }
+
+    /**
+     * @param basename classpath location without locale suffix and extension, e.g. {@code lang/error-messages}
+     */
+    public static ErrorMessageCatalog load(String basename) {
+        var resolver = new PathMatchingResourcePatternResolver();
+        var prefix = StringUtils.getFilename(basename);
+        var bundles = new HashMap<Locale, Map<String, MessageTemplate>>();
+        try {
+            for (var resource : resolver.getResources("classpath*:" + basename + "*.properties")) {
+                var locale = localeOf(prefix, resource.getFilename());
+                if (locale == null) continue;
+                var messages = bundles.computeIfAbsent(locale, key -> new HashMap<>());
+                read(resource).forEach((code, message) -> messages.putIfAbsent((String) code, MessageTemplate.parse((String) message)));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load message bundles " + basename, ex);
+        }
+        log.info("Compiled error messages {} for locales {}", basename, bundles.keySet());
+        return new ErrorMessageCatalog(bundles);
+    }
+
+    @Override
+    public void setParentMessageSource(@Nullable MessageSource parent) {
+        this.parentMessageSource = parent;
+    }
+
+    @Override
+    @Nullable
+    public MessageSource getParentMessageSource() {
+        return parentMessageSource;
+    }
+
+    @Override
+    @Nullable
+    public String getMessage(@NotNull String code, @Nullable Object[] args, @Nullable String defaultMessage, @NotNull Locale locale) {
+        var message = resolve(code, args, locale);
+        if (message != null) return message;
+        if (parentMessageSource != null) return parentMessageSource.getMessage(code, args, defaultMessage, locale);
+        if (defaultMessage == null || args == null || args.length == 0) return defaultMessage;
+        return MessageTemplate.parse(defaultMessage).format(args, locale, argument -> resolveArgument(argument, locale));
+    }
+
+    @Override
+    @NotNull
+    public String getMessage(@NotNull String code, @Nullable Object[] args, @NotNull Locale locale) throws NoSuchMessageException {
+        var message = resolve(code, args, locale);
+        if (message != null) return message;
+        if (parentMessageSource != null) return parentMessageSource.getMessage(code, args, locale);
+        throw new NoSuchMessageException(code, locale);
+    }
+
+    @Override
+    @NotNull
+    public String getMessage(@NotNull MessageSourceResolvable resolvable, @NotNull Locale locale) throws NoSuchMessageException {
+        var codes = resolvable.getCodes();
+        if (codes != null) {
+            for (var code : codes) {
+                var message = resolve(code, resolvable.getArguments(), locale);
+                if (message != null) return message;
+            }
+        }
+        if (parentMessageSource != null) return parentMessageSource.getMessage(resolvable, locale);
+        var defaultMessage = resolvable.getDefaultMessage();
+        if (defaultMessage != null) return defaultMessage;
+        throw new NoSuchMessageException(codes != null && codes.length > 0 ? codes[codes.length - 1] : "", locale);
+    }
+
+    @Nullable
+    private String resolve(String code, @Nullable Object[] args, Locale locale) {
+        var template = messages(locale).get(code);
+        if (template == null) return null;
+        if (args == null || args.length == 0) return template.message();
+        return template.format(args, locale, argument -> resolveArgument(argument, locale));
+    }
+
+    private Object resolveArgument(Object argument, Locale locale) {
+        return argument instanceof MessageSourceResolvable resolvable ? getMessage(resolvable, locale) : argument;
+    }
+
+    private Map<String, MessageTemplate> messages(Locale locale) {
+        var messages = byLocale.get(locale);
+        if (messages != null) return messages;
+        messages = merge(locale);
+        if (byLocale.size() < MAX_CACHED_LOCALES) byLocale.putIfAbsent(locale, messages);
+        return messages;
+    }
+
+    private Map<String, MessageTemplate> merge(Locale locale) {
+        var merged = new HashMap<>(bundles.getOrDefault(Locale.ROOT, Map.of()));
+        var systemLocale = Locale.getDefault();
+        if (!systemLocale.equals(locale)) putBundles(merged, systemLocale);
+        putBundles(merged, locale);
+        return Map.copyOf(merged);
+    }
+
+    private void putBundles(Map<String, MessageTemplate> merged, Locale locale) {
+        if (!locale.getLanguage().isEmpty()) merged.putAll(bundles.getOrDefault(Locale.of(locale.getLanguage()), Map.of()));
+        if (!locale.getCountry().isEmpty()) merged.putAll(bundles.getOrDefault(Locale.of(locale.getLanguage(), locale.getCountry()), Map.of()));
+    }
+
+    @Nullable
+    private static Locale localeOf(String prefix, @Nullable String filename) {
+        if (filename == null || !filename.startsWith(prefix)) return null;
+        var suffix = filename.substring(prefix.length(), filename.length() - ".properties".length());
+        if (suffix.isEmpty()) return Locale.ROOT;
+        if (suffix.charAt(0) != '_') return null;
+        return StringUtils.parseLocale(suffix.substring(1));
+    }
+
+    /**
+     * Reads the bundle as UTF-8 and falls back to ISO-8859-1 for legacy encoded files, like
+     * {@link java.util.PropertyResourceBundle} does.
+     */
+    private static Properties read(Resource resource) throws IOException {
+        byte[] bytes;
+        try (var input = resource.getInputStream()) {
+            bytes = input.readAllBytes();
+        }
+        String content;
+        try {
+            content = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException ex) {
+            content = new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        var properties = new Properties();
+        properties.load(new StringReader(content));
+        return properties;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ketoru.springframework.errors.i18n;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * A message parsed once into literal and argument parts. Supports the {@link MessageFormat} quoting rules and simple
+ * {@code {n}} arguments, formatted as {@link MessageFormat} would; messages using format types or styles such as
+ * {@code {0,number,#.##}} fall back to {@link MessageFormat}.
+ */
+final class MessageTemplate {
+
+    private final String message;
+    private final String[] literals;
+    private final int[] arguments;
+    private final boolean complex;
+
+    private MessageTemplate(String message, String[] literals, int[] arguments, boolean complex) {
+        this.message = message;
+        this.literals = literals;
+        this.arguments = arguments;
+        this.complex = complex;
+    }
+
+    /**
+     * @return the message as written in the bundle, what a message source returns when there are no arguments
+     */
+    String message() {
+        return message;
+    }
+
+    String format(Object[] args, Locale locale, Function<Object, Object> resolver) {
+        if (complex) return new MessageFormat(message, locale).format(resolve(args, resolver));
+        var builder = new StringBuilder(message.length() + 16 * arguments.length);
+        for (var i = 0; i < arguments.length; i++) {
+            builder.append(literals[i]);
+            var index = arguments[i];
+            if (index < args.length) appendArgument(builder, resolver.apply(args[index]), locale);
+            else builder.append('{').append(index).append('}');
+        }
+        return builder.append(literals[arguments.length]).toString();
+    }
+
+    private static Object[] resolve(Object[] args, Function<Object, Object> resolver) {
+        var resolved = new Object[args.length];
+        for (var i = 0; i < args.length; i++) resolved[i] = resolver.apply(args[i]);
+        return resolved;
+    }
+
+    private static void appendArgument(StringBuilder builder, Object argument, Locale locale) {
+        if (argument instanceof String string) builder.append(string);
+        else if (argument instanceof Number number) builder.append(NumberFormat.getInstance(locale).format(number));
+        else if (argument instanceof Date date) builder.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale).format(date));
+        else builder.append(argument);
+    }
+
+    static MessageTemplate parse(String message) {
+        var literals = new ArrayList<String>();
+        var arguments = new ArrayList<Integer>();
+        var literal = new StringBuilder();
+        var length = message.length();
+        var quoted = false;
+        for (var i = 0; i < length; i++) {
+            var c = message.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && message.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == '{' && !quoted) {
+                var end = message.indexOf('}', i);
+                var index = end > i ? parseIndex(message, i + 1, end) : -1;
+                if (index < 0) return new MessageTemplate(message, null, null, true);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                arguments.add(index);
+                i = end;
+            } else {
+                literal.append(c);
+            }
+        }
+        literals.add(literal.toString());
+        return new MessageTemplate(message, literals.toArray(String[]::new), arguments.stream().mapToInt(Integer::intValue).toArray(), false);
+    }
+
+    private static int parseIndex(String message, int start, int end) {
+        if (start == end) return -1;
+        var index = 0;
+        for (var i = start; i < end; i++) {
+            var c = message.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ketoru.springframework.errors.jfr;
+
+import jdk.jfr.*;
+import org.springframework.lang.Nullable;
+
+/**
+ * Lookup, by the catch-all handler, of the handler method of an exception wrapped in another one, see
+ * {@link com.ketoru.springframework.errors.support.ExceptionMappings#unwrap(Throwable)}.
+ */
+@Name(HandlerResolutionEvent.NAME)
+@Label("Exception Handler Resolution")
+@Category({"Spring", "Error Handling"})
+@StackTrace(false)
+public class HandlerResolutionEvent extends Event {
+
+    public static final String NAME = "com.ketoru.springframework.errors.HandlerResolution";
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Handled Class")
+    @Description("Wrapped exception dispatched to its handler, missing when none has a handler")
+    Class<?> handledClass;
+
+    public void commit(Throwable ex, @Nullable Throwable handled) {
+        if (!shouldCommit()) return;
+        this.exceptionClass = ex.getClass();
+        this.handledClass = handled != null ? handled.getClass() : null;
+        commit();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ketoru.springframework.errors.jfr;
+
+import jdk.jfr.*;
+import org.springframework.lang.Nullable;
+import org.springframework.web.ErrorResponse;
+
+/**
+ * Creation of a problem body, with its detail and title resolved from the message source.
+ */
+@Name(MessageResolutionEvent.NAME)
+@Label("Error Message Resolution")
+@Category({"Spring", "Error Handling"})
+@StackTrace(false)
+public class MessageResolutionEvent extends Event {
+
+    public static final String NAME = "com.ketoru.springframework.errors.MessageResolution";
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Status")
+    int status;
+
+    @Label("Message Code")
+    String messageCode;
+
+    /**
+     * @param messageCode {@code null} for the default code of the exception class
+     */
+    public void commit(Throwable ex, int status, @Nullable String messageCode) {
+        if (!shouldCommit()) return;
+        this.exceptionClass = ex.getClass();
+        this.status = status;
+        this.messageCode = messageCode != null ? messageCode : ErrorResponse.getDefaultDetailMessageCode(ex.getClass(), null);
+        commit();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ketoru.springframework.errors.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Creation of the error response from the problem body, with the logging, events and metrics of the handled error.
+ */
+@Name(ResponseCreationEvent.NAME)
+@Label("Error Response Creation")
+@Category({"Spring", "Error Handling"})
+@StackTrace(false)
+public class ResponseCreationEvent extends Event {
+
+    public static final String NAME = "com.ketoru.springframework.errors.ResponseCreation";
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Status")
+    int status;
+
+    @Label("Static Response")
+    @Description("Body written from the bytes serialized once by static-responses")
+    boolean staticResponse;
+
+    public void commit(Throwable ex, int status, boolean staticResponse) {
+        if (!shouldCommit()) return;
+        this.exceptionClass = ex.getClass();
+        this.status = status;
+        this.staticResponse = staticResponse;
+        commit();
+    }
+}
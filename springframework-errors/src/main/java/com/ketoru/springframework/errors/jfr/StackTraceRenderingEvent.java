@@ -0,0 +1,33 @@
+package com.ketoru.springframework.errors.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Rendering of a throwable by {@link com.ketoru.springframework.errors.support.StackTraceRenderer}.
+ */
+@Name(StackTraceRenderingEvent.NAME)
+@Label("Stack Trace Rendering")
+@Category({"Spring", "Error Handling"})
+@StackTrace(false)
+public class StackTraceRenderingEvent extends Event {
+
+    public static final String NAME = "com.ketoru.springframework.errors.StackTraceRendering";
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Causes")
+    int causes;
+
+    @Label("Cached")
+    @Description("Rendered trace taken from the cache")
+    boolean cached;
+
+    public void commit(Throwable ex, int causes, boolean cached) {
+        if (!shouldCommit()) return;
+        this.exceptionClass = ex.getClass();
+        this.causes = causes;
+        this.cached = cached;
+        commit();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ketoru.springframework.errors.jfr;
+
+import com.ketoru.springframework.errors.schemas.ValidationErrors;
+import jdk.jfr.*;
+
+/**
+ * Aggregation of the violations of an exception into the {@link ValidationErrors} of the problem body.
+ */
+@Name(ValidationAggregationEvent.NAME)
+@Label("Validation Aggregation")
+@Category({"Spring", "Error Handling"})
+@StackTrace(false)
+public class ValidationAggregationEvent extends Event {
+
+    public static final String NAME = "com.ketoru.springframework.errors.ValidationAggregation";
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Violations")
+    int violations;
+
+    @Label("Messages")
+    @Description("Messages added to the body, fewer than the violations when truncated by max-validation-errors")
+    int messages;
+
+    public void commit(Throwable ex, ValidationErrors errors) {
+        if (!shouldCommit()) return;
+        this.exceptionClass = ex.getClass();
+        this.violations = errors.getTotalErrors();
+        this.messages = errors.size();
+        commit();
+    }
+}
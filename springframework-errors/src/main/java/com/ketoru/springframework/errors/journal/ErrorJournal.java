@@ -0,0 +1,274 @@
+package com.ketoru.springframework.errors.journal;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.events.ErrorEvent;
+import com.ketoru.springframework.errors.events.ErrorEventListener;
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+import com.ketoru.springframework.errors.support.StackTraceRenderer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Append-only binary journal of handled errors in memory-mapped segment files, read offline with
+ * {@link ErrorJournalReader} or {@link ErrorJournalCli}. Mapped pages are written back by the operating system, so the
+ * journal survives the process dying.
+ * <p>
+ * Writers reserve their record with a compare-and-set of its length field from zero, starting from the last known end
+ * of the segment and skipping the records reserved meanwhile, and write it in place, without locks or allocation unless
+ * a stack trace is compressed. Records are thus self-delimiting: one reserved by a writer that died before completing
+ * it still has its length, and its type byte, written last, tells the reader to skip it. When a segment is full a new
+ * one is created and the oldest beyond {@code journal.max-segments} are deleted.
+ * <p>
+ * Record layout, big endian, each record padded to a multiple of 4 bytes:
+ * <pre>
+ * int length, byte type = CLASS,  int classId, short nameLength, byte[] name
+ * int length, byte type = ERROR,  long timestamp, short status, int classId, long fingerprint, int stackTraceLength, byte[] deflatedStackTrace
+ * </pre>
+ * Class ids are scoped to the segment, which starts with {@link #MAGIC} and {@link #VERSION}.
+ */
+@Log4j2
+public class ErrorJournal implements ErrorEventListener, Closeable {
+
+    static final int MAGIC = 0x4B45524A;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 8;
+    static final byte CLASS = 1;
+    static final byte ERROR = 2;
+    static final int ERROR_LENGTH = 4 + 1 + 8 + 2 + 4 + 8 + 4;
+    static final int CLASS_LENGTH = 4 + 1 + 4 + 2;
+    static final String SUFFIX = ".journal";
+    private static final byte[] NO_STACK_TRACE = new byte[0];
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int fingerprintFrames;
+    @Nullable
+    private final StackTraceRenderer stackTraceRenderer;
+    private final Map<String, byte[]> compressed = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private volatile Segment segment;
+    private volatile boolean closed;
+
+    public ErrorJournal(ErrorsProperties.Journal properties, ErrorsProperties.StackTrace stackTrace, int fingerprintFrames) {
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentSize = (int) Math.min(Math.max(properties.getSegmentSize().toBytes(), 4096), Integer.MAX_VALUE);
+        this.maxSegments = Math.max(properties.getMaxSegments(), 1);
+        this.fingerprintFrames = fingerprintFrames;
+        this.stackTraceRenderer = properties.isStackTraces() ? new StackTraceRenderer(textOf(stackTrace)) : null;
+        try {
+            Files.createDirectories(directory);
+            var segments = ErrorJournalReader.segments(directory);
+            this.segment = open(segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1)) + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open error journal in " + directory, ex);
+        }
+    }
+
+    public void append(Throwable ex, int status, long timestamp) {
+        if (closed) return;
+        var stackTrace = stackTraceOf(ex);
+        var length = align(ERROR_LENGTH + stackTrace.length);
+        var className = ex.getClass().getName();
+        // a new segment starts with the class record, a record that does not fit next to it would rotate forever
+        if (length + classRecordLength(className) > segmentSize - HEADER_LENGTH) return;
+
+        var fingerprint = ErrorFingerprint.of(ex, status, fingerprintFrames);
+        while (true) {
+            var segment = this.segment;
+            var classId = segment.classId(className);
+            var at = classId < 0 ? -1 : segment.reserve(length);
+            if (at >= 0) {
+                var buffer = segment.buffer;
+                buffer.putLong(at + 5, timestamp);
+                buffer.putShort(at + 13, (short) status);
+                buffer.putInt(at + 15, classId);
+                buffer.putLong(at + 19, fingerprint);
+                buffer.putInt(at + 27, stackTrace.length);
+                buffer.put(at + ERROR_LENGTH, stackTrace);
+                buffer.put(at + 4, ERROR);
+                return;
+            }
+            if (!rotate(segment)) return;
+        }
+    }
+
+    @Override
+    public void onErrorEvent(ErrorEvent event) {
+        append(event.exception(), event.status(), event.timestamp());
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces the written records of the current segment to the storage device.
+     */
+    public void flush() {
+        if (!closed) segment.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        segment.buffer.force();
+    }
+
+    private byte[] stackTraceOf(Throwable ex) {
+        if (stackTraceRenderer == null) return NO_STACK_TRACE;
+        var text = (String) stackTraceRenderer.render(ex);
+        var bytes = compressed.get(text);
+        if (bytes != null) return bytes;
+        if (compressed.size() >= 256) compressed.clear();
+        bytes = deflate(text.getBytes(StandardCharsets.UTF_8));
+        compressed.put(text, bytes);
+        return bytes;
+    }
+
+    private byte[] deflate(byte[] input) {
+        var deflater = this.deflater.get();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        var output = new byte[input.length + 64];
+        var length = 0;
+        while (!deflater.finished()) {
+            if (length == output.length) output = Arrays.copyOf(output, output.length * 2);
+            length += deflater.deflate(output, length, output.length - length);
+        }
+        return Arrays.copyOf(output, length);
+    }
+
+    /**
+     * @return whether the record can be retried, {@code false} when the journal is closed or failed
+     */
+    private synchronized boolean rotate(Segment full) {
+        if (closed) return false;
+        if (segment != full) return true;
+        try {
+            full.buffer.force();
+            segment = open(full.index + 1);
+            var segments = ErrorJournalReader.segments(directory);
+            for (var i = 0; i < segments.size() - maxSegments; i++) Files.deleteIfExists(segments.get(i));
+            return true;
+        } catch (IOException ex) {
+            log.warn("Cannot rotate error journal in {}, it is disabled", directory, ex);
+            closed = true;
+            return false;
+        }
+    }
+
+    private Segment open(long index) throws IOException {
+        var path = directory.resolve(String.format("errors-%010d%s", index, SUFFIX));
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            return new Segment(index, buffer);
+        }
+    }
+
+    static int align(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static int classRecordLength(String className) {
+        var bytes = className.length();
+        for (var i = 0; i < className.length(); i++) {
+            var c = className.charAt(i);
+            if (c >= 0x800) bytes += Character.isSurrogate(c) ? 1 : 2;
+            else if (c >= 0x80) bytes++;
+        }
+        return align(CLASS_LENGTH + bytes);
+    }
+
+    static long index(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("errors-".length(), name.length() - SUFFIX.length()));
+    }
+
+    private static ErrorsProperties.StackTrace textOf(ErrorsProperties.StackTrace properties) {
+        var text = new ErrorsProperties.StackTrace();
+        text.setMaxFrames(properties.getMaxFrames());
+        text.setMaxCauses(properties.getMaxCauses());
+        text.setMaxBytes(properties.getMaxBytes());
+        text.setExcludedPackages(properties.getExcludedPackages());
+        text.setCacheSize(properties.getCacheSize());
+        text.setFormat(StackTraceRenderer.Format.TEXT);
+        return text;
+    }
+
+    private static final class Segment {
+
+        private final long index;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger position = new AtomicInteger(HEADER_LENGTH);
+        private final Map<String, Integer> classIds = new ConcurrentHashMap<>();
+        private final AtomicInteger nextClassId = new AtomicInteger();
+
+        private Segment(long index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Claims the first free record from the last known end of the segment. The length is set by the compare and
+         * set that claims the record, so the records reserved by other writers, complete or not, are skipped over.
+         *
+         * @param length a multiple of 4, so the length fields are aligned
+         * @return the offset of the reserved record, {@code -1} when the segment is full
+         */
+        private int reserve(int length) {
+            var at = position.get();
+            while (true) {
+                if (at > buffer.capacity() - length) return -1;
+                if (LENGTH.compareAndSet(buffer, at, 0, length)) {
+                    position.accumulateAndGet(at + length, Math::max);
+                    return at;
+                }
+                at += (int) LENGTH.getVolatile(buffer, at);
+            }
+        }
+
+        /**
+         * @return the id of the class in this segment, writing its definition on first use, {@code -1} when the
+         * segment is full
+         */
+        private int classId(String className) {
+            var id = classIds.get(className);
+            if (id != null) return id;
+            return classIds.computeIfAbsent(className, name -> {
+                var bytes = name.getBytes(StandardCharsets.UTF_8);
+                var at = reserve(align(CLASS_LENGTH + bytes.length));
+                if (at < 0) return -1;
+                var classId = nextClassId.getAndIncrement();
+                buffer.putInt(at + 5, classId);
+                buffer.putShort(at + 9, (short) bytes.length);
+                buffer.put(at + 11, bytes);
+                buffer.put(at + 4, CLASS);
+                return classId;
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ketoru.springframework.errors.journal;
+
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.function.Predicate;
+
+/**
+ * Command line reader of an {@link ErrorJournal}:
+ * <pre>
+ * java -cp ketoru-springframework-errors.jar com.ketoru.springframework.errors.journal.ErrorJournalCli &lt;directory or segment&gt;
+ *     [--status 500] [--exception IllegalState] [--since PT1H | 2024-01-01T00:00:00Z] [--top 10] [--stack-traces]
+ * </pre>
+ * Prints the matching errors, or with {@code --top} the most frequent fingerprints among them.
+ */
+public final class ErrorJournalCli {
+
+    private ErrorJournalCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage: ErrorJournalCli <directory or segment> [--status N] [--exception TEXT] [--since DURATION|INSTANT] [--top N] [--stack-traces]");
+            System.exit(2);
+        }
+        Predicate<JournalRecord> filter = record -> true;
+        var top = 0;
+        var stackTraces = false;
+        for (var i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--status" -> {
+                    var status = Integer.parseInt(args[++i]);
+                    filter = filter.and(record -> record.status() == status);
+                }
+                case "--exception" -> {
+                    var exception = args[++i];
+                    filter = filter.and(record -> record.exception().contains(exception));
+                }
+                case "--since" -> {
+                    var since = since(args[++i]);
+                    filter = filter.and(record -> record.timestamp() >= since);
+                }
+                case "--top" -> top = Integer.parseInt(args[++i]);
+                case "--stack-traces" -> stackTraces = true;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        var reader = new ErrorJournalReader(Path.of(args[0]), stackTraces && top == 0);
+        if (top > 0) printTop(reader, filter, top, System.out);
+        else print(reader, filter, System.out);
+    }
+
+    private static void print(ErrorJournalReader reader, Predicate<JournalRecord> filter, PrintStream out) throws IOException {
+        reader.forEach(filter, record -> {
+            out.println(record);
+            if (record.stackTrace() != null) out.println(record.stackTrace());
+        });
+    }
+
+    private static void printTop(ErrorJournalReader reader, Predicate<JournalRecord> filter, int top, PrintStream out) throws IOException {
+        var counts = new HashMap<Long, long[]>();
+        var exceptions = new HashMap<Long, String>();
+        reader.forEach(filter, record -> {
+            var count = counts.computeIfAbsent(record.fingerprint(), fingerprint -> new long[2]);
+            count[0]++;
+            count[1] = Math.max(count[1], record.timestamp());
+            exceptions.putIfAbsent(record.fingerprint(), record.status() + " " + record.exception());
+        });
+        counts.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> -entry.getValue()[0]))
+                .limit(top)
+                .forEach(entry -> out.printf("%8d  %s  %s  last %s%n", entry.getValue()[0], ErrorFingerprint.toHex(entry.getKey()), exceptions.get(entry.getKey()), Instant.ofEpochMilli(entry.getValue()[1])));
+    }
+
+    private static long since(String value) {
+        return value.startsWith("P") ? System.currentTimeMillis() - Duration.parse(value).toMillis() : Instant.parse(value).toEpochMilli();
+    }
+}
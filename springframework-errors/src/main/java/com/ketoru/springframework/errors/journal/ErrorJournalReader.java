@@ -0,0 +1,116 @@
+package com.ketoru.springframework.errors.journal;
+
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the segments written by {@link ErrorJournal}, oldest first. Incomplete records, left by a writer that died
+ * while writing them, are skipped along with their length.
+ */
+public class ErrorJournalReader {
+
+    private final Path path;
+    private final boolean stackTraces;
+
+    /**
+     * @param path        a journal directory or a single segment file
+     * @param stackTraces whether to decompress the stack traces, skipping them is much faster
+     */
+    public ErrorJournalReader(Path path, boolean stackTraces) {
+        this.path = path;
+        this.stackTraces = stackTraces;
+    }
+
+    /**
+     * @return the segment files of the directory, oldest first
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("errors-\\d+\\" + ErrorJournal.SUFFIX))
+                    .sorted(Comparator.comparingLong(ErrorJournal::index))
+                    .toList();
+        }
+    }
+
+    public void forEach(Consumer<JournalRecord> action) throws IOException {
+        forEach(record -> true, action);
+    }
+
+    public void forEach(Predicate<JournalRecord> filter, Consumer<JournalRecord> action) throws IOException {
+        for (var segment : Files.isDirectory(path) ? segments(path) : List.of(path)) read(segment, filter, action);
+    }
+
+    public List<JournalRecord> read(Predicate<JournalRecord> filter) throws IOException {
+        var records = new ArrayList<JournalRecord>();
+        forEach(filter, records::add);
+        return records;
+    }
+
+    private void read(Path segment, Predicate<JournalRecord> filter, Consumer<JournalRecord> action) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < ErrorJournal.HEADER_LENGTH || buffer.getInt(0) != ErrorJournal.MAGIC) throw new IOException("Not an error journal segment: " + segment);
+        if (buffer.getInt(4) != ErrorJournal.VERSION) throw new IOException("Unsupported error journal version " + buffer.getInt(4) + ": " + segment);
+
+        var classes = new HashMap<Integer, String>();
+        var at = ErrorJournal.HEADER_LENGTH;
+        while (at <= buffer.capacity() - 5) {
+            var length = buffer.getInt(at);
+            // every reserved record has its length, zero is where the writers stopped
+            if (length <= 0 || length > buffer.capacity() - at) break;
+            var type = buffer.get(at + 4);
+            if (type == ErrorJournal.CLASS) {
+                var name = new byte[buffer.getShort(at + 9)];
+                buffer.get(at + 11, name);
+                classes.put(buffer.getInt(at + 5), new String(name, StandardCharsets.UTF_8));
+            } else if (type == ErrorJournal.ERROR) {
+                var exception = classes.getOrDefault(buffer.getInt(at + 15), "?");
+                var stackTrace = stackTraces ? inflate(buffer, at + ErrorJournal.ERROR_LENGTH, buffer.getInt(at + 27)) : null;
+                var record = new JournalRecord(buffer.getLong(at + 5), buffer.getShort(at + 13), exception, buffer.getLong(at + 19), stackTrace);
+                if (filter.test(record)) action.accept(record);
+            }
+            at += length;
+        }
+    }
+
+    @Nullable
+    private static String inflate(ByteBuffer buffer, int at, int length) throws IOException {
+        if (length == 0) return null;
+        var input = new byte[length];
+        buffer.get(at, input);
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            var output = new ByteArrayOutputStream(length * 4);
+            var chunk = new byte[4096];
+            while (!inflater.finished()) {
+                var n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                output.write(chunk, 0, n);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupted stack trace in error journal", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ketoru.springframework.errors.journal;
+
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+
+/**
+ * An error read from the {@link ErrorJournal}.
+ *
+ * @param timestamp  epoch milliseconds
+ * @param stackTrace the rendered stack trace, {@code null} when the journal was written without them
+ */
+public record JournalRecord(long timestamp, int status, String exception, long fingerprint, @Nullable String stackTrace) {
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestamp) + " " + status + " " + exception + " " + ErrorFingerprint.toHex(fingerprint);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ketoru.springframework.errors.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Decides whether an error occurrence is logged in full. Each fingerprint gets {@code maxPerWindow} full logs per
+ * window, further occurrences are counted and reported through {@link SummaryListener} at most once per
+ * {@code summaryInterval} and when the window rolls over. Due summaries are flushed by whichever thread records next,
+ * so an error that stops recurring is still summarized once any other error is recorded.
+ * <p>
+ * Fingerprints live in a fixed size open table updated with compare and set, there is no lock and no allocation besides
+ * one entry per fingerprint and window. Two fingerprints landing on the same slot evict each other, so under heavy
+ * collisions an error may be logged more often than configured, never less.
+ */
+public class ErrorLogThrottle {
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+    private final int maxPerWindow;
+    private final long windowNanos;
+    private final long summaryIntervalNanos;
+    private final SummaryListener summaryListener;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param tableSize rounded up to a power of two
+     */
+    public ErrorLogThrottle(int tableSize, int maxPerWindow, Duration window, Duration summaryInterval, SummaryListener summaryListener) {
+        var size = Integer.highestOneBit(Math.max(tableSize, 2) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxPerWindow = maxPerWindow;
+        this.windowNanos = window.toNanos();
+        this.summaryIntervalNanos = summaryInterval.toNanos();
+        this.summaryListener = summaryListener;
+    }
+
+    /**
+     * @param description reported in the summaries, typically the exception class name
+     * @return whether this occurrence should be logged in full
+     */
+    public boolean tryAcquire(long fingerprint, String description) {
+        var now = System.nanoTime();
+        sweepIfDue(now);
+        var index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        while (true) {
+            var entry = table.get(index);
+            if (entry == null || entry.fingerprint != fingerprint || now - entry.windowStart >= windowNanos) {
+                var next = new Entry(fingerprint, description, now);
+                if (!table.compareAndSet(index, entry, next)) continue;
+                if (entry != null) summarize(entry, now);
+                return true;
+            }
+            if (entry.count.incrementAndGet() <= maxPerWindow) return true;
+            entry.suppressed.incrementAndGet();
+            summarizeIfDue(entry, now);
+            return false;
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        var last = lastSweep.get();
+        if (now - last < summaryIntervalNanos || !lastSweep.compareAndSet(last, now)) return;
+        for (var i = 0; i < table.length(); i++) {
+            var entry = table.get(i);
+            if (entry != null && entry.suppressed.get() > 0) summarizeIfDue(entry, now);
+        }
+    }
+
+    private void summarizeIfDue(Entry entry, long now) {
+        var lastSummary = entry.lastSummary.get();
+        if (now - lastSummary >= summaryIntervalNanos && entry.lastSummary.compareAndSet(lastSummary, now)) summarize(entry, now);
+    }
+
+    private void summarize(Entry entry, long now) {
+        var suppressed = entry.suppressed.getAndSet(0);
+        if (suppressed > 0) summaryListener.onSuppressed(entry.fingerprint, entry.description, suppressed, Duration.ofNanos(now - entry.windowStart));
+    }
+
+    @FunctionalInterface
+    public interface SummaryListener {
+        void onSuppressed(long fingerprint, String description, long suppressed, Duration since);
+    }
+
+    private static final class Entry {
+
+        private final long fingerprint;
+        private final String description;
+        private final long windowStart;
+        private final AtomicInteger count = new AtomicInteger(1);
+        private final AtomicLong suppressed = new AtomicLong();
+        private final AtomicLong lastSummary;
+
+        private Entry(long fingerprint, String description, long windowStart) {
+            this.fingerprint = fingerprint;
+            this.description = description;
+            this.windowStart = windowStart;
+            this.lastSummary = new AtomicLong(windowStart);
+        }
+    }
+}
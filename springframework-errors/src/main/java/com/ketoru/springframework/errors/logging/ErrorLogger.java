@@ -0,0 +1,48 @@
+package com.ketoru.springframework.errors.logging;
+
+import com.ketoru.springframework.errors.DefaultExceptionHandler;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Logs handled errors under the {@link DefaultExceptionHandler} category, deduplicated by {@link ErrorLogThrottle}
+ * when {@code log-throttle.enabled} is set.
+ */
+public class ErrorLogger {
+
+    // by name, so the servlet handler class is not loaded in WebFlux applications
+    private static final Logger log = LogManager.getLogger("com.ketoru.springframework.errors.DefaultExceptionHandler");
+
+    @Nullable
+    private final ErrorLogThrottle throttle;
+    private final int fingerprintFrames;
+
+    public ErrorLogger(ErrorsProperties.LogThrottle properties) {
+        this.fingerprintFrames = properties.getFingerprintFrames();
+        this.throttle = properties.isEnabled()
+                ? new ErrorLogThrottle(properties.getTableSize(), properties.getMaxPerWindow(), properties.getWindow(), properties.getSummaryInterval(), ErrorLogger::logSummary)
+                : null;
+    }
+
+    public void log(Throwable ex, int status) {
+        if (throttle == null || throttle.tryAcquire(ErrorFingerprint.of(ex, status, fingerprintFrames), ex.getClass().getName())) {
+            log.error("Error: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * One line without stack trace, for degraded error handling.
+     */
+    public void logBrief(Throwable ex, int status) {
+        log.error("Error {}: {}: {}", status, ex.getClass().getName(), ex.getMessage());
+    }
+
+    private static void logSummary(long fingerprint, String description, long suppressed, Duration since) {
+        log.warn("Suppressed {} occurrences of {} [fingerprint {}] in the last {} s", suppressed, description, ErrorFingerprint.toHex(fingerprint), since.toSeconds());
+    }
+}
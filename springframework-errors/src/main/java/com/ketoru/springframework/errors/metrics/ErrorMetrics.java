@@ -0,0 +1,80 @@
+package com.ketoru.springframework.errors.metrics;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dependency free {@link ErrorMetricsListener} counting handled errors by exception class, status and problem type,
+ * with a {@link LatencyHistogram} per exception class. Counters are {@link LongAdder}s and lookups lock free reads of
+ * {@link ConcurrentHashMap}, so error storms on many cores do not serialize on the metrics. Up to
+ * {@code metrics.max-types} problem types are counted, the others together as {@code other}.
+ */
+public class ErrorMetrics implements ErrorMetricsListener {
+
+    private static final String OTHER_TYPES = "other";
+
+    private final Map<Class<? extends Throwable>, LatencyHistogram> byException = new ConcurrentHashMap<>();
+    private final LongAdder[] byStatus = new LongAdder[600];
+    private final Map<URI, LongAdder> byType = new ConcurrentHashMap<>();
+    private final LongAdder otherTypes = new LongAdder();
+    private final int maxTypes;
+
+    public ErrorMetrics() {
+        this(new ErrorsProperties.Metrics());
+    }
+
+    public ErrorMetrics(ErrorsProperties.Metrics properties) {
+        this.maxTypes = properties.getMaxTypes();
+        for (var i = 0; i < byStatus.length; i++) byStatus[i] = new LongAdder();
+    }
+
+    @Override
+    public void onErrorHandled(Class<? extends Throwable> exceptionClass, int status, @Nullable URI type, long durationNanos) {
+        var histogram = byException.get(exceptionClass);
+        if (histogram == null) histogram = byException.computeIfAbsent(exceptionClass, key -> new LatencyHistogram());
+        histogram.record(durationNanos);
+        if (status >= 0 && status < byStatus.length) byStatus[status].increment();
+        if (type != null) typeCounter(type).increment();
+    }
+
+    private LongAdder typeCounter(URI type) {
+        var counter = byType.get(type);
+        if (counter != null) return counter;
+        if (byType.size() >= maxTypes) return otherTypes;
+        return byType.computeIfAbsent(type, key -> new LongAdder());
+    }
+
+    public Map<String, Long> getCountsByException() {
+        var counts = new TreeMap<String, Long>();
+        byException.forEach((exceptionClass, histogram) -> counts.put(exceptionClass.getName(), histogram.count()));
+        return counts;
+    }
+
+    public Map<Integer, Long> getCountsByStatus() {
+        var counts = new TreeMap<Integer, Long>();
+        for (var i = 0; i < byStatus.length; i++) {
+            var count = byStatus[i].sum();
+            if (count > 0) counts.put(i, count);
+        }
+        return counts;
+    }
+
+    public Map<String, Long> getCountsByType() {
+        var counts = new TreeMap<String, Long>();
+        byType.forEach((type, counter) -> counts.put(type.toString(), counter.sum()));
+        var other = otherTypes.sum();
+        if (other > 0) counts.put(OTHER_TYPES, other);
+        return counts;
+    }
+
+    @Nullable
+    public LatencyHistogram getLatency(Class<? extends Throwable> exceptionClass) {
+        return byException.get(exceptionClass);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ketoru.springframework.errors.metrics;
+
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+
+/**
+ * Notified by the exception handler once per handled error, on the request thread. Implementations must be thread safe
+ * and cheap, they run on every failed request.
+ */
+public interface ErrorMetricsListener {
+
+    /**
+     * @param exceptionClass class of the handled exception
+     * @param status         status code of the response
+     * @param type           {@code ProblemDetail.type} of the response body, {@code null} when the body is not a problem
+     * @param durationNanos  time spent in the handler
+     */
+    void onErrorHandled(Class<? extends Throwable> exceptionClass, int status, @Nullable URI type, long durationNanos);
+}
@@ -0,0 +1,56 @@
+package com.ketoru.springframework.errors.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in power of two nanosecond buckets, backed by {@link LongAdder}s so concurrent writers update
+ * striped cells instead of contending on a single counter.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (var i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        var value = Math.max(nanos, 0);
+        buckets[Math.max(BUCKETS - 1 - Long.numberOfLeadingZeros(value), 0)].increment();
+        count.increment();
+        totalNanos.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @param percentile between {@code 0} and {@code 1}
+     * @return upper bound, in nanoseconds, of the bucket holding the percentile, {@code 0} when nothing was recorded
+     */
+    public long percentile(double percentile) {
+        var counts = new long[BUCKETS];
+        var total = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+        var rank = (long) Math.ceil(percentile * total);
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+}
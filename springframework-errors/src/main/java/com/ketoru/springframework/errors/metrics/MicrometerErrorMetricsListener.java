@@ -0,0 +1,85 @@
+package com.ketoru.springframework.errors.metrics;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes handled errors as the {@code errors.handled} timer, tagged with {@code exception}, the fully qualified
+ * class name, {@code status} and {@code type}. Timers are registered once per tag combination and cached.
+ * <p>
+ * The {@code type} tag is the type without query or fragment, limited to {@code metrics.max-types} values as in
+ * {@link ErrorMetrics}, the other types are tagged {@code other}. Percentile histograms multiply the series of each
+ * timer and are only published with {@code metrics.percentile-histogram}.
+ */
+public class MicrometerErrorMetricsListener implements ErrorMetricsListener {
+
+    public static final String METER_NAME = "errors.handled";
+
+    private static final String NO_TYPE = "none";
+    private static final String OTHER_TYPES = "other";
+    private static final int MAX_CACHED_TYPES = 4096;
+
+    private final MeterRegistry registry;
+    private final boolean percentileHistogram;
+    private final int maxTypes;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Set<String> typeTags = ConcurrentHashMap.newKeySet();
+    private final Map<URI, String> normalizedTypes = new ConcurrentHashMap<>();
+
+    public MicrometerErrorMetricsListener(MeterRegistry registry) {
+        this(registry, new ErrorsProperties.Metrics());
+    }
+
+    public MicrometerErrorMetricsListener(MeterRegistry registry, ErrorsProperties.Metrics properties) {
+        this.registry = registry;
+        this.percentileHistogram = properties.isPercentileHistogram();
+        this.maxTypes = properties.getMaxTypes();
+    }
+
+    @Override
+    public void onErrorHandled(Class<? extends Throwable> exceptionClass, int status, @Nullable URI type, long durationNanos) {
+        var key = new MeterKey(exceptionClass, status, typeTag(type));
+        var timer = timers.get(key);
+        if (timer == null) timer = timers.computeIfAbsent(key, this::register);
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String typeTag(@Nullable URI type) {
+        if (type == null) return NO_TYPE;
+        var tag = normalizedTypes.get(type);
+        if (tag != null) return tag;
+        tag = normalize(type);
+        if (!typeTags.contains(tag)) {
+            if (typeTags.size() >= maxTypes) return OTHER_TYPES;
+            typeTags.add(tag);
+        }
+        if (normalizedTypes.size() < MAX_CACHED_TYPES) normalizedTypes.put(type, tag);
+        return tag;
+    }
+
+    private static String normalize(URI type) {
+        if (type.isOpaque()) return type.getScheme() + ":" + type.getRawSchemeSpecificPart();
+        return (type.getScheme() != null ? type.getScheme() + ":" : "") + (type.getRawAuthority() != null ? "//" + type.getRawAuthority() : "") + (type.getRawPath() != null ? type.getRawPath() : "");
+    }
+
+    private Timer register(MeterKey key) {
+        return Timer.builder(METER_NAME)
+                .description("Errors mapped by the exception handler and the time spent handling them")
+                .tag("exception", key.exceptionClass().getName())
+                .tag("status", Integer.toString(key.status()))
+                .tag("type", key.type())
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry);
+    }
+
+    private record MeterKey(Class<? extends Throwable> exceptionClass, int status, String type) {
+    }
+}
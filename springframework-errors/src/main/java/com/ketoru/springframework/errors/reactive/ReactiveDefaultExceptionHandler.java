@@ -0,0 +1,344 @@
+package com.ketoru.springframework.errors.reactive;
+
+import com.ketoru.springframework.errors.ApiErrorException;
+import com.ketoru.springframework.errors.OverloadException;
+import com.ketoru.springframework.errors.config.ErrorHandlingSettings;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.config.ErrorsPropertiesAware;
+import com.ketoru.springframework.errors.events.ErrorEvent;
+import com.ketoru.springframework.errors.events.ErrorEventPipeline;
+import com.ketoru.springframework.errors.i18n.ConstraintMessageResolver;
+import com.ketoru.springframework.errors.i18n.ErrorMessageCatalog;
+import com.ketoru.springframework.errors.jfr.MessageResolutionEvent;
+import com.ketoru.springframework.errors.jfr.ResponseCreationEvent;
+import com.ketoru.springframework.errors.jfr.ValidationAggregationEvent;
+import com.ketoru.springframework.errors.journal.ErrorJournal;
+import com.ketoru.springframework.errors.metrics.ErrorMetricsListener;
+import com.ketoru.springframework.errors.recent.RecentErrorBuffer;
+import com.ketoru.springframework.errors.schemas.FieldErrorPair;
+import com.ketoru.springframework.errors.schemas.ValidationErrors;
+import com.ketoru.springframework.errors.support.ExceptionMappings;
+import com.ketoru.springframework.errors.support.PropertyPaths;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.http.*;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.*;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Default Exception Handler for WebFlux, with the mappings of
+ * {@link com.ketoru.springframework.errors.DefaultExceptionHandler}.
+ * <p>
+ * Nothing blocks the event loop: messages are resolved in place from the in-memory {@link ErrorMessageCatalog}, and on
+ * a bounded elastic thread with any other {@link MessageSource}; logging goes through the {@link ErrorEventPipeline}
+ * without waiting for room, or on a bounded elastic thread when the pipeline is disabled.
+ */
+@Log4j2
+public abstract class ReactiveDefaultExceptionHandler extends ResponseEntityExceptionHandler implements ErrorsPropertiesAware {
+
+    private static final Method DEFAULT_HANDLER = ReflectionUtils.findMethod(ReactiveDefaultExceptionHandler.class, "handleDefaultException", Exception.class, ServerWebExchange.class);
+
+    private final ExceptionMappings mappings = new ExceptionMappings(getClass(), DEFAULT_HANDLER, ServerWebExchange.class, Mono.class);
+    private volatile ErrorHandlingSettings settings = ErrorHandlingSettings.of(new ErrorsProperties());
+    private boolean blockingMessageSource;
+    private ErrorMetricsListener[] metricsListeners = new ErrorMetricsListener[0];
+    @Nullable
+    private ErrorEventPipeline eventPipeline;
+    @Nullable
+    private RecentErrorBuffer recentErrors;
+    @Nullable
+    private ErrorJournal journal;
+    @Nullable
+    private ConstraintMessageResolver constraintMessages;
+
+    @Override
+    public void setErrorsConfiguration(ErrorsProperties properties) {
+        this.settings = ErrorHandlingSettings.of(properties);
+    }
+
+    @Override
+    public void setMessageSource(@NotNull MessageSource messageSource) {
+        super.setMessageSource(messageSource);
+        this.blockingMessageSource = !(messageSource instanceof ErrorMessageCatalog);
+    }
+
+    @Autowired(required = false)
+    public void setErrorMetricsListeners(List<ErrorMetricsListener> listeners) {
+        this.metricsListeners = listeners.toArray(ErrorMetricsListener[]::new);
+    }
+
+    @Autowired(required = false)
+    public void setErrorEventPipeline(ErrorEventPipeline eventPipeline) {
+        this.eventPipeline = eventPipeline;
+    }
+
+    /**
+     * Written directly only without {@link ErrorEventPipeline}, otherwise the buffer is one of its listeners.
+     */
+    @Autowired(required = false)
+    public void setRecentErrorBuffer(RecentErrorBuffer recentErrors) {
+        this.recentErrors = recentErrors;
+    }
+
+    /**
+     * Written directly only without {@link ErrorEventPipeline}, like the {@link RecentErrorBuffer}.
+     */
+    @Autowired(required = false)
+    public void setErrorJournal(ErrorJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Resolves on the thread of the other messages, see {@link #setMessageSource}.
+     */
+    @Autowired(required = false)
+    public void setConstraintMessageResolver(ConstraintMessageResolver constraintMessages) {
+        this.constraintMessages = constraintMessages;
+    }
+
+    /**
+     * Wrapped exceptions are handled by the handler of the wrapped exception, see
+     * {@link com.ketoru.springframework.errors.DefaultExceptionHandler#handleDefaultException}.
+     */
+    @ExceptionHandler(Exception.class)
+    @SuppressWarnings("unchecked")
+    public Mono<ResponseEntity<Object>> handleDefaultException(Exception ex, ServerWebExchange exchange) {
+        var cause = mappings.unwrap(ex);
+        if (cause != null) return (Mono<ResponseEntity<Object>>) mappings.invoke(this, cause, exchange);
+        var settings = this.settings;
+        return settings.allErrors()
+                ? createDefaultResponseEntity(ex, new HttpHeaders(), INTERNAL_SERVER_ERROR, ex.getMessage(), "problemDetail.java.lang.Exception.message", new Object[]{ex.getMessage()}, exchange)
+                : createDefaultResponseEntity(ex, new HttpHeaders(), INTERNAL_SERVER_ERROR, "Internal Server Error", "problemDetail.java.lang.Exception", null, exchange);
+    }
+
+    @ExceptionHandler(ApiErrorException.class)
+    public Mono<ResponseEntity<Object>> handleApiErrorException(ApiErrorException ex, ServerWebExchange exchange) {
+        var start = System.nanoTime();
+        // WebFlux fills in the instance of the returned body, a shared one is copied first
+        if (ex.getDetailMessageCode() == null && ex.getTitleMessageCode() == null) return Mono.just(apiErrorResponse(ex, ex.getBody(), exchange, start));
+        return problemDetail(() -> ex.updateAndGetBody(getMessageSource(), locale(exchange)))
+                .map(problem -> apiErrorResponse(ex, problem, exchange, start));
+    }
+
+    private ResponseEntity<Object> apiErrorResponse(ApiErrorException ex, ProblemDetail problem, ServerWebExchange exchange, long start) {
+        dispatchEvents(ex, problem.getStatus(), problem, exchange, settings, false);
+        recordMetrics(ex, problem.getStatus(), problem, start);
+        return ResponseEntity.status(problem.getStatus()).headers(ex.getHeaders()).body(problem);
+    }
+
+    /**
+     * Fast path for shed requests, only counted: no logging, events or metrics listeners.
+     */
+    @ExceptionHandler(OverloadException.class)
+    public Mono<ResponseEntity<Object>> handleOverloadException(OverloadException ex) {
+        return Mono.just(ex.toResponseEntity());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public Mono<ResponseEntity<Object>> handleConstraintViolationException(ConstraintViolationException ex, ServerWebExchange exchange) {
+        var start = System.nanoTime();
+        var defaultDetail = "One or more fields are invalid.";
+        var settings = this.settings;
+        return problemDetail(() -> {
+            var body = createProblemDetail(ex, BAD_REQUEST, defaultDetail, null, null, exchange);
+            var constraintMessages = this.constraintMessages;
+            var locale = locale(exchange);
+            var aggregation = new ValidationAggregationEvent();
+            aggregation.begin();
+            var errors = ValidationErrors.of(ex.getConstraintViolations(), settings.maxValidationErrors(), violation -> {
+                var path = violation.getPropertyPath();
+                if (log.isDebugEnabled()) log.debug("Property path: {}, Class bean {}", path, violation.getRootBeanClass());
+                var field = settings.fullPropertyPaths() ? PropertyPaths.fullPath(path) : PropertyPaths.leafName(path);
+                return new FieldErrorPair(field, constraintMessages != null ? constraintMessages.resolve(violation, locale) : violation.getMessage());
+            });
+            errors.addTo(body);
+            aggregation.commit(ex, errors);
+            return body;
+        }).flatMap(body -> createResponseEntity(ex, body, new HttpHeaders(), BAD_REQUEST, exchange, start));
+    }
+
+    @ExceptionHandler(InvalidMediaTypeException.class)
+    public Mono<ResponseEntity<Object>> handleInvalidMediaTypeException(InvalidMediaTypeException ex, ServerWebExchange exchange) {
+        var defaultDetail = "The media type '" + ex.getMediaType() + "' is not supported.";
+        var detailMessageArguments = new Object[]{ex.getMediaType()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), BAD_REQUEST, defaultDetail, null, detailMessageArguments, exchange);
+    }
+
+    @ExceptionHandler(AccountExpiredException.class)
+    public Mono<ResponseEntity<Object>> handleAccountExpiredException(AccountExpiredException ex, ServerWebExchange exchange) {
+        var defaultDetail = "User account has expired.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(AuthenticationCredentialsNotFoundException.class)
+    public Mono<ResponseEntity<Object>> handleAuthenticationCredentialsNotFoundException(AuthenticationCredentialsNotFoundException ex, ServerWebExchange exchange) {
+        var defaultDetail = "Authentication credentials were not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public Mono<ResponseEntity<Object>> handleBadCredentialsException(BadCredentialsException ex, ServerWebExchange exchange) {
+        var defaultDetail = "Invalid username or password.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(CredentialsExpiredException.class)
+    public Mono<ResponseEntity<Object>> handleCredentialsExpiredException(CredentialsExpiredException ex, ServerWebExchange exchange) {
+        var defaultDetail = "User credentials have expired.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(DisabledException.class)
+    public Mono<ResponseEntity<Object>> handleDisabledException(DisabledException ex, ServerWebExchange exchange) {
+        var defaultDetail = "User account is disabled.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(InsufficientAuthenticationException.class)
+    public Mono<ResponseEntity<Object>> handleInsufficientAuthenticationException(InsufficientAuthenticationException ex, ServerWebExchange exchange) {
+        var defaultDetail = "Insufficient authentication provided.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(LockedException.class)
+    public Mono<ResponseEntity<Object>> handleLockedException(LockedException ex, ServerWebExchange exchange) {
+        var defaultDetail = "User account is locked.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(ProviderNotFoundException.class)
+    public Mono<ResponseEntity<Object>> handleProviderNotFoundException(ProviderNotFoundException ex, ServerWebExchange exchange) {
+        var defaultDetail = "Authentication provider not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(UsernameNotFoundException.class)
+    public Mono<ResponseEntity<Object>> handleUsernameNotFoundException(UsernameNotFoundException ex, ServerWebExchange exchange) {
+        var defaultDetail = "User not found.";
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, null, exchange);
+    }
+
+    @ExceptionHandler(AuthenticationServiceException.class)
+    public Mono<ResponseEntity<Object>> handleAuthenticationServiceException(AuthenticationServiceException ex, ServerWebExchange exchange) {
+        var defaultDetail = "An error occurred during authentication, detail: " + ex.getMessage();
+        var detailMessageArguments = new Object[]{ex.getMessage()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, detailMessageArguments, exchange);
+    }
+
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public Mono<ResponseEntity<Object>> handleInternalAuthenticationServiceException(InternalAuthenticationServiceException ex, ServerWebExchange exchange) {
+        var defaultDetail = "An internal error occurred during authentication, detail: " + ex.getMessage();
+        var detailMessageArguments = new Object[]{ex.getMessage()};
+        return createDefaultResponseEntity(ex, new HttpHeaders(), UNAUTHORIZED, defaultDetail, null, detailMessageArguments, exchange);
+    }
+
+    protected Mono<ResponseEntity<Object>> createDefaultResponseEntity(Exception ex, HttpHeaders headers, HttpStatusCode statusCode, String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, ServerWebExchange exchange) {
+        var start = System.nanoTime();
+        return problemDetail(() -> createProblemDetail(ex, statusCode, defaultDetail, detailMessageCode, detailMessageArguments, exchange))
+                .flatMap(body -> createResponseEntity(ex, body, headers, statusCode, exchange, start));
+    }
+
+    /**
+     * The response of the handlers of this class, which are recorded but not logged and get no stack trace.
+     */
+    private Mono<ResponseEntity<Object>> createResponseEntity(Exception ex, Object body, HttpHeaders headers, HttpStatusCode statusCode, ServerWebExchange exchange, long start) {
+        var event = new ResponseCreationEvent();
+        event.begin();
+        return createResponseEntity(body, headers, statusCode, exchange).doOnNext(response -> {
+            var status = response.getStatusCode().value();
+            dispatchEvents(ex, status, response.getBody(), exchange, settings, false);
+            recordMetrics(ex, status, response.getBody(), start);
+            event.commit(ex, status, false);
+        });
+    }
+
+    /**
+     * Runs {@code factory}, which resolves messages, on a bounded elastic thread unless the message source is the
+     * in-memory catalog.
+     */
+    private Mono<ProblemDetail> problemDetail(Supplier<ProblemDetail> factory) {
+        if (!blockingMessageSource) return Mono.fromSupplier(factory);
+        return Mono.fromSupplier(factory).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Locale locale(ServerWebExchange exchange) {
+        var locale = exchange.getLocaleContext().getLocale();
+        return locale != null ? locale : Locale.getDefault();
+    }
+
+    @NotNull
+    @Override
+    protected Mono<ResponseEntity<Object>> handleExceptionInternal(@NotNull Exception ex, @Nullable Object body, @Nullable HttpHeaders headers, @NotNull HttpStatusCode statusCode, @NotNull ServerWebExchange exchange) {
+        return handleExceptionInternal(ex, body, headers, statusCode, exchange, settings, System.nanoTime());
+    }
+
+    private Mono<ResponseEntity<Object>> handleExceptionInternal(Exception ex, @Nullable Object body, @Nullable HttpHeaders headers, HttpStatusCode statusCode, ServerWebExchange exchange, ErrorHandlingSettings settings, long start) {
+        var event = new ResponseCreationEvent();
+        event.begin();
+        return super.handleExceptionInternal(ex, body, headers, statusCode, exchange).doOnNext(response -> {
+            var responseBody = response.getBody();
+            var status = response.getStatusCode().value();
+            dispatchEvents(ex, status, responseBody, exchange, settings, true);
+            recordMetrics(ex, status, responseBody, start);
+            event.commit(ex, status, false);
+        });
+    }
+
+    @NotNull
+    @Override
+    protected ProblemDetail createProblemDetail(@NotNull Exception ex, @NotNull HttpStatusCode status, @NotNull String defaultDetail, @Nullable String detailMessageCode, @Nullable Object[] detailMessageArguments, @NotNull ServerWebExchange exchange) {
+        var event = new MessageResolutionEvent();
+        event.begin();
+        var body = super.createProblemDetail(ex, status, defaultDetail, detailMessageCode, detailMessageArguments, exchange);
+        event.commit(ex, status.value(), detailMessageCode);
+        return body;
+    }
+
+    /**
+     * Records the error in the recent buffer, journal and event pipeline.
+     *
+     * @param logged whether {@code log-errors} and {@code send-stack-trace} apply, only to the exceptions handled by
+     *               {@link ResponseEntityExceptionHandler} as before these recordings
+     */
+    private void dispatchEvents(Exception ex, int status, @Nullable Object body, ServerWebExchange exchange, ErrorHandlingSettings settings, boolean logged) {
+        if (recentErrors != null && eventPipeline == null) recentErrors.record(ex, status, exchange.getRequest().getPath().value(), System.currentTimeMillis());
+        // the journal writes to a file, off the event loop like the logging
+        if (journal != null && eventPipeline == null) {
+            var timestamp = System.currentTimeMillis();
+            Schedulers.boundedElastic().schedule(() -> journal.append(ex, status, timestamp));
+        }
+        if (eventPipeline != null) eventPipeline.tryPublish(new ErrorEvent(ex, status, typeOf(body), exchange.getRequest().getPath().value(), System.currentTimeMillis(), logged));
+        else if (logged && settings.logErrors()) Schedulers.boundedElastic().schedule(() -> settings.errorLogger().log(ex, status));
+        if (logged && settings.sendStackTrace() && body instanceof ProblemDetail problemDetail) problemDetail.setProperty("stackTrace", settings.stackTraceRenderer().render(ex));
+    }
+
+    private void recordMetrics(Exception ex, int status, @Nullable Object body, long start) {
+        if (metricsListeners.length == 0) return;
+        var duration = System.nanoTime() - start;
+        var type = typeOf(body);
+        for (var listener : metricsListeners) listener.onErrorHandled(ex.getClass(), status, type, duration);
+    }
+
+    @Nullable
+    private static URI typeOf(@Nullable Object body) {
+        return body instanceof ProblemDetail problemDetail ? problemDetail.getType() : null;
+    }
+}
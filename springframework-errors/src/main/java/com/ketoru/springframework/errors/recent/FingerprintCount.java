@@ -0,0 +1,9 @@
+package com.ketoru.springframework.errors.recent;
+
+/**
+ * Occurrences of one fingerprint in the {@link RecentErrorBuffer}.
+ *
+ * @param lastSeen epoch milliseconds of the latest occurrence
+ */
+public record FingerprintCount(long fingerprint, String exception, int status, long count, long lastSeen) {
+}
@@ -0,0 +1,14 @@
+package com.ketoru.springframework.errors.recent;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A handled error kept by {@link RecentErrorBuffer}.
+ *
+ * @param timestamp   epoch milliseconds at which the error was handled
+ * @param exception   class name of the exception
+ * @param fingerprint see {@link com.ketoru.springframework.errors.support.ErrorFingerprint}
+ * @param detail      exception message, truncated to {@code recent-errors.max-detail-length}
+ */
+public record RecentError(long timestamp, int status, String exception, long fingerprint, @Nullable String path, @Nullable String detail) {
+}
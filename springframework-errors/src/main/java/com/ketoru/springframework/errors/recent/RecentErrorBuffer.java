@@ -0,0 +1,101 @@
+package com.ketoru.springframework.errors.recent;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.events.ErrorEvent;
+import com.ketoru.springframework.errors.events.ErrorEventListener;
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size ring of the last handled errors. Writers claim a slot with one atomic increment and publish a single
+ * {@link RecentError}, readers copy the ring without ever blocking them; a slot overwritten while being read shows its
+ * newer error.
+ * <p>
+ * With the {@link com.ketoru.springframework.errors.events.ErrorEventPipeline} enabled the buffer is one of its
+ * listeners, so fingerprints are computed on the worker thread instead of the request thread.
+ */
+public class RecentErrorBuffer implements ErrorEventListener {
+
+    private final AtomicReferenceArray<RecentError> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int maxDetailLength;
+    private final int fingerprintFrames;
+
+    /**
+     * @param fingerprintFrames the same as the log throttle, so fingerprints can be looked up in the logs
+     */
+    public RecentErrorBuffer(ErrorsProperties.RecentErrors properties, int fingerprintFrames) {
+        var size = Integer.highestOneBit(Math.max(properties.getCapacity(), 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxDetailLength = properties.getMaxDetailLength();
+        this.fingerprintFrames = fingerprintFrames;
+    }
+
+    public void record(Throwable ex, int status, @Nullable String path, long timestamp) {
+        var fingerprint = ErrorFingerprint.of(ex, status, fingerprintFrames);
+        var error = new RecentError(timestamp, status, ex.getClass().getName(), fingerprint, path, truncate(ex.getMessage()));
+        slots.lazySet((int) (sequence.getAndIncrement() & mask), error);
+    }
+
+    @Override
+    public void onErrorEvent(ErrorEvent event) {
+        record(event.exception(), event.status(), event.path(), event.timestamp());
+    }
+
+    /**
+     * @return up to {@code limit} errors, newest first, none for a negative limit
+     */
+    public List<RecentError> recent(int limit) {
+        var end = sequence.get();
+        var start = Math.max(0, end - Math.clamp(limit, 0, slots.length()));
+        var errors = new ArrayList<RecentError>((int) (end - start));
+        for (var i = end - 1; i >= start; i--) {
+            var error = slots.get((int) (i & mask));
+            if (error != null) errors.add(error);
+        }
+        return errors;
+    }
+
+    /**
+     * @return the {@code k} most frequent fingerprints among the buffered errors handled within {@code window}
+     */
+    public List<FingerprintCount> topFingerprints(Duration window, int k) {
+        var since = System.currentTimeMillis() - window.toMillis();
+        var counts = new HashMap<Long, FingerprintCount>();
+        for (var error : recent(slots.length())) {
+            if (error.timestamp() < since) continue;
+            counts.merge(error.fingerprint(), new FingerprintCount(error.fingerprint(), error.exception(), error.status(), 1, error.timestamp()),
+                    (a, b) -> new FingerprintCount(a.fingerprint(), a.exception(), a.status(), a.count() + 1, Math.max(a.lastSeen(), b.lastSeen())));
+        }
+        return counts.values().stream()
+                .sorted(Comparator.comparingLong(FingerprintCount::count).reversed().thenComparing(Comparator.comparingLong(FingerprintCount::lastSeen).reversed()))
+                .limit(k)
+                .toList();
+    }
+
+    /**
+     * @return number of errors recorded since startup
+     */
+    public long getTotal() {
+        return sequence.get();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    @Nullable
+    private String truncate(@Nullable String detail) {
+        return detail == null || detail.length() <= maxDetailLength ? detail : detail.substring(0, maxDetailLength);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ketoru.springframework.errors.recent;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.support.ErrorFingerprint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code errors} with the content of the {@link RecentErrorBuffer}: the latest errors and the most
+ * frequent fingerprints over a time window.
+ */
+@Endpoint(id = "errors")
+public class RecentErrorsEndpoint {
+
+    private final RecentErrorBuffer buffer;
+    private final ErrorsProperties.RecentErrors properties;
+
+    public RecentErrorsEndpoint(RecentErrorBuffer buffer, ErrorsProperties.RecentErrors properties) {
+        this.buffer = buffer;
+        this.properties = properties;
+    }
+
+    /**
+     * @param limit         maximum number of errors, all the buffered ones by default
+     * @param windowSeconds window of the top fingerprints, {@code recent-errors.window} by default
+     * @param top           number of top fingerprints, {@code recent-errors.top-fingerprints} by default
+     */
+    @ReadOperation
+    public Report errors(@Nullable Integer limit, @Nullable Long windowSeconds, @Nullable Integer top) {
+        var window = windowSeconds != null ? Duration.ofSeconds(windowSeconds) : properties.getWindow();
+        var errors = buffer.recent(limit != null ? limit : buffer.getCapacity()).stream()
+                .map(error -> new Error(Instant.ofEpochMilli(error.timestamp()), error.status(), error.exception(), ErrorFingerprint.toHex(error.fingerprint()), error.path(), error.detail()))
+                .toList();
+        var fingerprints = buffer.topFingerprints(window, top != null ? top : properties.getTopFingerprints()).stream()
+                .map(count -> new Fingerprint(ErrorFingerprint.toHex(count.fingerprint()), count.exception(), count.status(), count.count(), Instant.ofEpochMilli(count.lastSeen())))
+                .toList();
+        return new Report(buffer.getTotal(), window, fingerprints, errors);
+    }
+
+    /**
+     * @param total errors recorded since startup, including the ones no longer buffered
+     */
+    public record Report(long total, Duration window, List<Fingerprint> topFingerprints, List<Error> errors) {
+    }
+
+    public record Error(Instant timestamp, int status, String exception, String fingerprint, @Nullable String path, @Nullable String detail) {
+    }
+
+    public record Fingerprint(String fingerprint, String exception, int status, long count, Instant lastSeen) {
+    }
+}
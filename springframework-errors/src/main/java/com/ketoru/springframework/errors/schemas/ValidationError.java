@@ -0,0 +1,121 @@
+package com.ketoru.springframework.errors.schemas;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ProblemDetail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Field and global validation messages, grouped by field in insertion order. When {@code maxErrors} is positive only
+ * the first {@code maxErrors} messages are kept, {@link #getTotalErrors()} still counts every message received.
+ *
+ * @deprecated the handlers write {@link ValidationErrors}, whose {@code errors} list still has {@link Error} elements
+ */
+@Data
+@Deprecated
+public class ValidationError {
+
+    private final List<Error> errors;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final List<String> globalErrors;
+
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Map<String, Error> index;
+
+    @JsonIgnore
+    private final int maxErrors;
+
+    @JsonIgnore
+    private int totalErrors;
+
+    public ValidationError() {
+        this(0);
+    }
+
+    public ValidationError(int maxErrors) {
+        super();
+        this.errors = new ArrayList<>();
+        this.globalErrors = new ArrayList<>();
+        this.index = new HashMap<>();
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * @param maxErrors see {@link #ValidationError(int)}
+     */
+    public static <T> ValidationError of(Collection<T> errors, int maxErrors, Function<T, FieldErrorPair> mapper) {
+        var validations = new ValidationError(maxErrors);
+        for (var error : errors) {
+            var fieldError = mapper.apply(error);
+            if (fieldError.field() != null) validations.addError(fieldError.field(), fieldError.message());
+            else validations.addGlobalError(fieldError.message());
+        }
+        return validations;
+    }
+
+    public void addError(String field, String message) {
+        if (!accept()) return;
+        var error = index.get(field);
+        if (error == null) {
+            error = Error.merge(field, errors);
+            index.put(field, error);
+        }
+        error.getMessages().add(message);
+    }
+
+    public void addGlobalError(String message) {
+        if (!accept()) return;
+        globalErrors.add(message);
+    }
+
+    @JsonIgnore
+    public boolean isTruncated() {
+        return maxErrors > 0 && totalErrors > maxErrors;
+    }
+
+    /**
+     * Sets the {@code errors} and {@code globalErrors} properties of the body, plus {@code truncated} and
+     * {@code totalErrors} when messages were dropped.
+     */
+    public void addTo(ProblemDetail body) {
+        if (!errors.isEmpty()) body.setProperty("errors", errors);
+        if (!globalErrors.isEmpty()) body.setProperty("globalErrors", globalErrors);
+        if (isTruncated()) {
+            body.setProperty("truncated", true);
+            body.setProperty("totalErrors", totalErrors);
+        }
+    }
+
+    private boolean accept() {
+        totalErrors++;
+        return maxErrors <= 0 || totalErrors <= maxErrors;
+    }
+
+    @Data
+    public static class Error {
+
+        private final String field;
+        private List<String> messages = new ArrayList<>();
+
+        public static Error merge(String newError, List<Error> errors) {
+            var error = new Error(newError);
+            errors.add(error);
+            return error;
+        }
+    }
+}
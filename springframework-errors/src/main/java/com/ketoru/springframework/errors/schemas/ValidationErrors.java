@@ -0,0 +1,205 @@
+package com.ketoru.springframework.errors.schemas;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Validation messages of a problem body kept in flat arrays, in the order received, and streamed to the
+ * {@link JsonGenerator} when the body is written: {@code errors} is grouped by field, in order of first occurrence, and
+ * {@code globalErrors} lists the messages without field, the same JSON as {@link ValidationError} without building its
+ * lists per field.
+ * <p>
+ * Memory stays at two references and an int per message whatever the number of violations, the JSON is written
+ * directly to the response by the Jackson converter or encoder. For code reading the body, the properties are
+ * {@link java.util.List} views with the element types of {@link ValidationError}.
+ */
+public final class ValidationErrors {
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final String[] fields;
+    private final String[] messages;
+    /**
+     * Index of the next message of the same field, {@code 0} for none, negated for the messages that are not the first
+     * of their field and {@link #NONE} for the last of them.
+     */
+    private final int[] next;
+    private int size;
+    private int fieldErrors;
+    private int distinctFields;
+    private int totalErrors;
+
+    private ValidationErrors(int capacity) {
+        this.fields = new String[capacity];
+        this.messages = new String[capacity];
+        this.next = new int[capacity];
+    }
+
+    /**
+     * @param maxErrors maximum number of messages kept, {@code 0} for no limit
+     */
+    public static <T> ValidationErrors of(Collection<T> errors, int maxErrors, Function<T, FieldErrorPair> mapper) {
+        var validations = new ValidationErrors(maxErrors > 0 ? Math.min(maxErrors, errors.size()) : errors.size());
+        var last = new HashMap<String, Integer>();
+        for (var error : errors) {
+            validations.totalErrors++;
+            if (validations.size == validations.fields.length) continue;
+            var fieldError = mapper.apply(error);
+            var index = validations.size++;
+            validations.fields[index] = fieldError.field();
+            validations.messages[index] = fieldError.message();
+            if (fieldError.field() == null) continue;
+            validations.fieldErrors++;
+            var previous = last.put(fieldError.field(), index);
+            if (previous == null) validations.distinctFields++;
+            else {
+                validations.next[previous] = validations.next[previous] < 0 ? -index : index;
+                validations.next[index] = NONE;
+            }
+        }
+        return validations;
+    }
+
+    private int successor(int index) {
+        var next = this.next[index];
+        return next == NONE ? 0 : Math.abs(next);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTotalErrors() {
+        return totalErrors;
+    }
+
+    public boolean isTruncated() {
+        return totalErrors > size;
+    }
+
+    /**
+     * Sets the {@code errors} and {@code globalErrors} properties of the body, plus {@code truncated} and
+     * {@code totalErrors} when messages were dropped.
+     */
+    public void addTo(ProblemDetail body) {
+        if (fieldErrors > 0) body.setProperty("errors", new FieldErrors(this));
+        if (size > fieldErrors) body.setProperty("globalErrors", new GlobalErrors(this));
+        if (isTruncated()) {
+            body.setProperty("truncated", true);
+            body.setProperty("totalErrors", totalErrors);
+        }
+    }
+
+    /**
+     * The {@code errors} property: {@code [{"field": ..., "messages": [...]}, ...]}. Read as a list, each element is
+     * built on access.
+     */
+    @JsonSerialize(using = FieldErrorsSerializer.class)
+    @SuppressWarnings("deprecation")
+    public static final class FieldErrors extends AbstractList<ValidationError.Error> {
+
+        private final ValidationErrors validations;
+        private int[] firsts;
+
+        private FieldErrors(ValidationErrors validations) {
+            this.validations = validations;
+        }
+
+        @Override
+        public ValidationError.Error get(int index) {
+            var i = firsts()[Objects.checkIndex(index, size())];
+            var error = new ValidationError.Error(validations.fields[i]);
+            do error.getMessages().add(validations.messages[i]);
+            while ((i = validations.successor(i)) != 0);
+            return error;
+        }
+
+        @Override
+        public int size() {
+            return validations.distinctFields;
+        }
+
+        /**
+         * Index of the first message of each field.
+         */
+        private int[] firsts() {
+            var firsts = this.firsts;
+            if (firsts != null) return firsts;
+            firsts = new int[validations.distinctFields];
+            for (int i = 0, n = 0; i < validations.size; i++) {
+                if (validations.fields[i] != null && validations.next[i] >= 0) firsts[n++] = i;
+            }
+            return this.firsts = firsts;
+        }
+    }
+
+    /**
+     * The {@code globalErrors} property: {@code [...]}.
+     */
+    @JsonSerialize(using = GlobalErrorsSerializer.class)
+    public static final class GlobalErrors extends AbstractList<String> {
+
+        private final ValidationErrors validations;
+
+        private GlobalErrors(ValidationErrors validations) {
+            this.validations = validations;
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size());
+            for (var i = 0; ; i++) {
+                if (validations.fields[i] == null && index-- == 0) return validations.messages[i];
+            }
+        }
+
+        @Override
+        public int size() {
+            return validations.size - validations.fieldErrors;
+        }
+    }
+
+    static final class FieldErrorsSerializer extends JsonSerializer<FieldErrors> {
+
+        @Override
+        public void serialize(FieldErrors value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            var validations = value.validations;
+            generator.writeStartArray();
+            for (var i = 0; i < validations.size; i++) {
+                if (validations.fields[i] == null || validations.next[i] < 0) continue;
+                generator.writeStartObject();
+                generator.writeStringField("field", validations.fields[i]);
+                generator.writeArrayFieldStart("messages");
+                var j = i;
+                do generator.writeString(validations.messages[j]);
+                while ((j = validations.successor(j)) != 0);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    static final class GlobalErrorsSerializer extends JsonSerializer<GlobalErrors> {
+
+        @Override
+        public void serialize(GlobalErrors value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            var validations = value.validations;
+            generator.writeStartArray();
+            for (var i = 0; i < validations.size; i++) {
+                if (validations.fields[i] == null) generator.writeString(validations.messages[i]);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ketoru.springframework.errors.storm;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the rate of handled errors over a sliding window and switches error handling to {@link State#DEGRADED} when it
+ * reaches {@code threshold} errors per second, back to {@link State#NORMAL} once it drops below
+ * {@code threshold * recovery-ratio}.
+ * <p>
+ * The window is a ring of buckets, each a {@code long} holding the low 32 bits of its tick and its count, so moving a
+ * bucket to a new tick and counting in it is one compare and set. The rate is only evaluated when the clock moves to a
+ * new bucket, so recording an error is usually a single successful compare and set.
+ * <p>
+ * Transitions are reported to the {@link ErrorStormListener}s in order, under the lock of the breaker: listeners should
+ * return quickly.
+ */
+@Log4j2
+public class ErrorStormBreaker {
+
+    public enum State {NORMAL, DEGRADED}
+
+    private final int buckets;
+    private final long bucketNanos;
+    private final double threshold;
+    private final double recoveryThreshold;
+    private final int eventSampling;
+    private final LongSupplier clock;
+    private final long origin;
+    private final AtomicLongArray window;
+    private final List<ErrorStormListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.NORMAL;
+    private volatile long evaluatedTick;
+    private volatile double errorRate;
+
+    public ErrorStormBreaker(ErrorsProperties.ErrorStorm properties) {
+        this(properties, System::nanoTime);
+    }
+
+    public ErrorStormBreaker(ErrorsProperties.ErrorStorm properties, LongSupplier clock) {
+        this.buckets = Math.max(properties.getBuckets(), 2);
+        this.bucketNanos = Math.max(properties.getWindow().toNanos() / buckets, 1);
+        this.threshold = properties.getThreshold();
+        this.recoveryThreshold = properties.getThreshold() * properties.getRecoveryRatio();
+        this.eventSampling = Math.max(properties.getEventSampling(), 1);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.window = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * Records one handled error.
+     *
+     * @return whether error handling is degraded
+     */
+    public boolean record() {
+        var tick = tick();
+        var index = (int) (tick % buckets);
+        while (true) {
+            var bucket = window.get(index);
+            var age = (int) tick - (int) (bucket >>> 32);
+            // recorded late, the bucket already belongs to a later tick
+            if (age < 0) break;
+            if (window.compareAndSet(index, bucket, age == 0 ? bucket + 1 : ((long) (int) tick << 32) + 1)) break;
+        }
+        return advance(tick) == State.DEGRADED;
+    }
+
+    public boolean isDegraded() {
+        return advance(tick()) == State.DEGRADED;
+    }
+
+    /**
+     * @return {@code true} for one in {@code event-sampling} calls
+     */
+    public boolean sample() {
+        return eventSampling == 1 || ThreadLocalRandom.current().nextInt(eventSampling) == 0;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return errors per second over the window, as of the last evaluation
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void addListener(ErrorStormListener listener) {
+        listeners.add(listener);
+    }
+
+    private long tick() {
+        return (clock.getAsLong() - origin) / bucketNanos + buckets;
+    }
+
+    private State advance(long tick) {
+        return tick > evaluatedTick ? evaluate(tick) : state;
+    }
+
+    /**
+     * Threads of the same tick do not wait for the reports, {@code evaluatedTick} being already set.
+     */
+    private synchronized State evaluate(long tick) {
+        if (tick <= evaluatedTick) return state;
+        evaluatedTick = tick;
+        var rate = rate(tick);
+        errorRate = rate;
+        var previous = state;
+        var current = previous == State.NORMAL && rate >= threshold ? State.DEGRADED
+                : previous == State.DEGRADED && rate < recoveryThreshold ? State.NORMAL
+                : previous;
+        state = current;
+        if (current != previous) report(previous, current, rate);
+        return current;
+    }
+
+    /**
+     * Rate over the completed buckets of the window, the current one is still filling.
+     */
+    private double rate(long tick) {
+        var total = 0L;
+        for (var i = 0; i < buckets; i++) {
+            var bucket = window.get(i);
+            var age = (int) tick - (int) (bucket >>> 32);
+            if (age > 0 && age < buckets) total += bucket & 0xFFFFFFFFL;
+        }
+        return total * 1_000_000_000d / (bucketNanos * (buckets - 1));
+    }
+
+    private void report(State previous, State current, double rate) {
+        if (current == State.DEGRADED) log.warn("Error storm: {} errors/s reached the threshold of {}, degrading error handling", Math.round(rate), threshold);
+        else log.warn("Error rate down to {} errors/s, full error handling restored", Math.round(rate));
+        for (var listener : listeners) {
+            try {
+                listener.onTransition(previous, current, rate);
+            } catch (RuntimeException ex) {
+                log.error("Error storm listener {} failed", listener, ex);
+            }
+        }
+    }
+}
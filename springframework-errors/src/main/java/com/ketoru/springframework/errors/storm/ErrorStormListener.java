@@ -0,0 +1,14 @@
+package com.ketoru.springframework.errors.storm;
+
+/**
+ * Notified by the {@link ErrorStormBreaker} when error handling is degraded or restored. Register implementations as
+ * beans to alert on error storms.
+ */
+@FunctionalInterface
+public interface ErrorStormListener {
+
+    /**
+     * @param errorRate errors per second over the window when the transition was decided
+     */
+    void onTransition(ErrorStormBreaker.State previous, ErrorStormBreaker.State current, double errorRate);
+}
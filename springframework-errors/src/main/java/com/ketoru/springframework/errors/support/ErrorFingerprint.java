@@ -0,0 +1,46 @@
+package com.ketoru.springframework.errors.support;
+
+/**
+ * 64 bit fingerprint identifying "the same error": exception class, the top stack frames and the response status.
+ * Messages are left out on purpose, they usually carry ids or values that differ between occurrences.
+ */
+public final class ErrorFingerprint {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private ErrorFingerprint() {
+    }
+
+    /**
+     * @param frames number of top frames taken into account
+     */
+    public static long of(Throwable throwable, int status, int frames) {
+        var hash = mix(SEED ^ throwable.getClass().getName().hashCode());
+        hash = mix(hash ^ status);
+        var stackTrace = throwable.getStackTrace();
+        var limit = Math.min(frames, stackTrace.length);
+        for (var i = 0; i < limit; i++) {
+            var frame = stackTrace[i];
+            hash = mix(hash ^ frame.getClassName().hashCode());
+            hash = mix(hash ^ frame.getMethodName().hashCode());
+            hash = mix(hash ^ frame.getLineNumber());
+        }
+        return hash;
+    }
+
+    public static String toHex(long fingerprint) {
+        return String.format("%016x", fingerprint);
+    }
+
+    /**
+     * Finalizer of MurmurHash3 64 bit.
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
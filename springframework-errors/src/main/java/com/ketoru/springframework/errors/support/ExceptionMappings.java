@@ -0,0 +1,122 @@
+package com.ketoru.springframework.errors.support;
+
+import com.ketoru.springframework.errors.jfr.HandlerResolutionEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Dispatch table from exception classes to the {@code @ExceptionHandler} methods of an advice, used to handle the
+ * exceptions that reach the catch-all handler wrapped in an {@link UndeclaredThrowableException},
+ * {@link CompletionException}, {@link ExecutionException} or {@link InvocationTargetException}.
+ * <p>
+ * The handler method of each class, resolved by walking its hierarchy, and how its arguments are bound are memoized in
+ * a {@link ClassValue}, so a repeated exception class costs a single lookup.
+ */
+public final class ExceptionMappings {
+
+    private static final int MAX_DEPTH = 16;
+    private static final Mapping NONE = new Mapping(null, new int[0]);
+    private static final int EXCEPTION = 0;
+    private static final int CONTEXT = 1;
+
+    private final ExceptionHandlerMethodResolver resolver;
+    private final Method fallback;
+    private final Class<?> contextType;
+    private final Class<?> resultType;
+    private final ClassValue<Mapping> mappings = new ClassValue<>() {
+        @Override
+        protected Mapping computeValue(Class<?> type) {
+            return Throwable.class.isAssignableFrom(type) ? mappingOf(type.asSubclass(Throwable.class)) : NONE;
+        }
+    };
+
+    /**
+     * @param handlerType the advice class
+     * @param fallback    the catch-all handler method, or its overrides, never dispatched to
+     * @param contextType type of the request argument of the handler methods besides the exception
+     * @param resultType  return type of the handler methods the catch-all handler can dispatch to
+     */
+    public ExceptionMappings(Class<?> handlerType, Method fallback, Class<?> contextType, Class<?> resultType) {
+        this.resolver = new ExceptionHandlerMethodResolver(ClassUtils.getUserClass(handlerType));
+        this.fallback = fallback;
+        this.contextType = contextType;
+        this.resultType = resultType;
+    }
+
+    /**
+     * @return the first exception wrapped in {@code ex} with a handler method other than the catch-all one, looking
+     * through wrapper exceptions only, {@code null} when there is none
+     */
+    @Nullable
+    public Exception unwrap(Throwable ex) {
+        var event = new HandlerResolutionEvent();
+        event.begin();
+        var handled = handledCause(ex);
+        event.commit(ex, handled);
+        return handled;
+    }
+
+    @Nullable
+    private Exception handledCause(Throwable ex) {
+        var current = ex;
+        for (var depth = 0; depth < MAX_DEPTH && isWrapper(current); depth++) {
+            var cause = current.getCause();
+            if (cause == null || cause == current) return null;
+            if (cause instanceof Exception exception && mappings.get(cause.getClass()).method != null) return exception;
+            current = cause;
+        }
+        return null;
+    }
+
+    /**
+     * Invokes the handler method of an exception returned by {@link #unwrap(Throwable)}.
+     */
+    @Nullable
+    public Object invoke(Object handler, Exception ex, Object context) {
+        var mapping = mappings.get(ex.getClass());
+        if (mapping.method == null) throw new IllegalArgumentException("No handler method for " + ex.getClass().getName());
+        var args = new Object[mapping.arguments.length];
+        for (var i = 0; i < args.length; i++) args[i] = mapping.arguments[i] == EXCEPTION ? ex : context;
+        try {
+            return mapping.method.invoke(handler, args);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            ReflectionUtils.handleReflectionException(e);
+            return null;
+        }
+    }
+
+    private static boolean isWrapper(Throwable ex) {
+        return ex instanceof UndeclaredThrowableException || ex instanceof CompletionException || ex instanceof ExecutionException || ex instanceof InvocationTargetException;
+    }
+
+    private Mapping mappingOf(Class<? extends Throwable> type) {
+        var method = resolver.resolveMethodByExceptionType(type);
+        if (method == null || isFallback(method) || !resultType.isAssignableFrom(method.getReturnType())) return NONE;
+
+        var parameters = method.getParameterTypes();
+        var arguments = new int[parameters.length];
+        for (var i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAssignableFrom(type)) arguments[i] = EXCEPTION;
+            else if (parameters[i].isAssignableFrom(contextType)) arguments[i] = CONTEXT;
+            else return NONE;
+        }
+        ReflectionUtils.makeAccessible(method);
+        return new Mapping(method, arguments);
+    }
+
+    private boolean isFallback(Method method) {
+        return method.getName().equals(fallback.getName()) && Arrays.equals(method.getParameterTypes(), fallback.getParameterTypes());
+    }
+
+    private record Mapping(@Nullable Method method, int[] arguments) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.ketoru.springframework.errors.support;
+
+import jakarta.validation.ElementKind;
+import jakarta.validation.Path;
+import org.springframework.lang.Nullable;
+
+/**
+ * Field names of a {@link Path} read from its nodes, without rendering and splitting {@link Path#toString()}.
+ */
+public final class PropertyPaths {
+
+    private PropertyPaths() {
+    }
+
+    /**
+     * @return the name of the last property or parameter node, {@code null} for bean level (global) constraints
+     */
+    @Nullable
+    public static String leafName(Path path) {
+        String leaf = null;
+        for (var node : path) {
+            var kind = node.getKind();
+            if (kind == ElementKind.PROPERTY || kind == ElementKind.PARAMETER) leaf = node.getName();
+        }
+        return leaf;
+    }
+
+    /**
+     * @return the path without the method or constructor node, with indexes and keys, e.g. {@code order.items[3].price}.
+     * {@code null} for bean level (global) constraints
+     */
+    @Nullable
+    public static String fullPath(Path path) {
+        StringBuilder builder = null;
+        for (var node : path) {
+            var kind = node.getKind();
+            if (kind == ElementKind.METHOD || kind == ElementKind.CONSTRUCTOR) continue;
+            if (node.isInIterable() && builder != null) {
+                var key = node.getIndex() != null ? node.getIndex() : node.getKey();
+                builder.append('[');
+                if (key != null) builder.append(key);
+                builder.append(']');
+            }
+            if (kind != ElementKind.PROPERTY && kind != ElementKind.PARAMETER) continue;
+            if (builder == null) builder = new StringBuilder(32);
+            else builder.append('.');
+            builder.append(node.getName());
+        }
+        return builder != null ? builder.toString() : null;
+    }
+}
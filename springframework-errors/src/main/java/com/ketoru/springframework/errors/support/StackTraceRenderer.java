@@ -0,0 +1,251 @@
+package com.ketoru.springframework.errors.support;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import com.ketoru.springframework.errors.jfr.StackTraceRenderingEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders throwables for the {@code stackTrace} response property, bounded in frames, causes and size:
+ * <ul>
+ *     <li>at most {@code maxFrames} frames per throwable, runs of frames of the excluded (framework) packages are
+ *     collapsed into a single line;</li>
+ *     <li>causes omit the frames they have in common with the enclosing throwable, as {@link Throwable#printStackTrace()}
+ *     does, and the chain stops after {@code maxCauses};</li>
+ *     <li>the text is cut at {@code maxBytes} UTF-8 bytes.</li>
+ * </ul>
+ * Rendered traces are cached by the classes, messages and frames of the chain, so repeated identical failures share the
+ * same instance. The cache is a {@link ConcurrentHashMap} cleared once it holds {@code cacheSize} traces, which keeps
+ * renders lock free and lets traces that never repeat, e.g. with an id in the message, go with the next clear.
+ */
+public class StackTraceRenderer {
+
+    private static final String TRUNCATED = "\t... truncated";
+
+    private final int maxFrames;
+    private final int maxCauses;
+    private final int maxBytes;
+    private final String[] excludedPackages;
+    private final Format format;
+    private final int cacheSize;
+    private final Map<TraceKey, Object> cache = new ConcurrentHashMap<>();
+
+    public StackTraceRenderer(ErrorsProperties.StackTrace properties) {
+        this.maxFrames = properties.getMaxFrames();
+        this.maxCauses = properties.getMaxCauses();
+        this.maxBytes = properties.getMaxBytes();
+        this.excludedPackages = properties.getExcludedPackages().toArray(String[]::new);
+        this.format = properties.getFormat();
+        this.cacheSize = properties.getCacheSize();
+    }
+
+    /**
+     * @return a {@link String} for {@link Format#TEXT}, a {@link List} of {@link ThrowableTrace} for
+     * {@link Format#STRUCTURED}
+     */
+    public Object render(Throwable throwable) {
+        var event = new StackTraceRenderingEvent();
+        event.begin();
+        var chain = chain(throwable);
+        var key = cacheSize > 0 ? new TraceKey(chain) : null;
+        var rendered = key != null ? cache.get(key) : null;
+        if (rendered != null) {
+            event.commit(throwable, chain.size() - 1, true);
+            return rendered;
+        }
+        rendered = format == Format.STRUCTURED ? structured(chain) : text(chain);
+        if (key != null) {
+            if (cache.size() >= cacheSize) cache.clear();
+            cache.put(key, rendered);
+        }
+        event.commit(throwable, chain.size() - 1, false);
+        return rendered;
+    }
+
+    private List<Throwable> chain(Throwable throwable) {
+        var chain = new ArrayList<Throwable>(4);
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (var current = throwable; current != null && seen.add(current) && chain.size() <= maxCauses; current = current.getCause()) {
+            chain.add(current);
+        }
+        return chain;
+    }
+
+    private String text(List<Throwable> chain) {
+        var out = new Output(maxBytes);
+        StackTraceElement[] enclosing = null;
+        for (var i = 0; i < chain.size() && !out.full; i++) {
+            var throwable = chain.get(i);
+            if (i > 0) out.append("Caused by: ");
+            out.append(throwable.toString()).append("\n");
+            var frames = throwable.getStackTrace();
+            var common = enclosing != null ? framesInCommon(frames, enclosing) : 0;
+            var rendered = 0;
+            var excluded = 0;
+            var last = frames.length - common;
+            for (var f = 0; f < last && !out.full; f++) {
+                if (isExcluded(frames[f])) {
+                    excluded++;
+                    continue;
+                }
+                if (excluded > 0) out.append("\t... ").append(excluded).append(" framework frames\n");
+                excluded = 0;
+                if (rendered++ == maxFrames) {
+                    out.append("\t... ").append(last - f).append(" more frames\n");
+                    break;
+                }
+                out.append("\tat ").append(frames[f].toString()).append("\n");
+            }
+            if (excluded > 0) out.append("\t... ").append(excluded).append(" framework frames\n");
+            if (common > 0) out.append("\t... ").append(common).append(" more\n");
+            enclosing = frames;
+        }
+        if (chain.size() > maxCauses && chain.getLast().getCause() != null) out.append("\t... more causes omitted\n");
+        return out.toString();
+    }
+
+    private List<ThrowableTrace> structured(List<Throwable> chain) {
+        var traces = new ArrayList<ThrowableTrace>(chain.size());
+        var budget = maxBytes;
+        StackTraceElement[] enclosing = null;
+        for (var throwable : chain) {
+            var frames = throwable.getStackTrace();
+            var common = enclosing != null ? framesInCommon(frames, enclosing) : 0;
+            var last = frames.length - common;
+            var lines = new ArrayList<String>(Math.min(last, maxFrames));
+            var omitted = common;
+            for (var f = 0; f < last; f++) {
+                var frame = frames[f];
+                if (isExcluded(frame) || lines.size() == maxFrames) {
+                    omitted++;
+                    continue;
+                }
+                var line = frame.toString();
+                budget -= Output.utf8Length(line);
+                if (budget < 0) {
+                    omitted += last - f;
+                    break;
+                }
+                lines.add(line);
+            }
+            traces.add(new ThrowableTrace(throwable.getClass().getName(), throwable.getMessage(), List.copyOf(lines), omitted));
+            enclosing = frames;
+            if (budget < 0) break;
+        }
+        return List.copyOf(traces);
+    }
+
+    private boolean isExcluded(StackTraceElement frame) {
+        var className = frame.getClassName();
+        for (var excludedPackage : excludedPackages) {
+            if (className.startsWith(excludedPackage)) return true;
+        }
+        return false;
+    }
+
+    private static int framesInCommon(StackTraceElement[] frames, StackTraceElement[] enclosing) {
+        var m = frames.length - 1;
+        var n = enclosing.length - 1;
+        while (m >= 0 && n >= 0 && frames[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        return frames.length - 1 - m;
+    }
+
+    public enum Format {
+        /**
+         * A single string close to {@link Throwable#printStackTrace()}.
+         */
+        TEXT,
+        /**
+         * An array with one {@link ThrowableTrace} per throwable of the cause chain.
+         */
+        STRUCTURED
+    }
+
+    /**
+     * @param omittedFrames frames not listed: framework frames, frames over the limit and frames in common with the
+     *                      enclosing throwable
+     */
+    public record ThrowableTrace(String exception, String message, List<String> frames, int omittedFrames) {
+    }
+
+    /**
+     * Class name, message and frames of each throwable of a chain, compared in full so that two traces with the same
+     * hash never share a rendering.
+     */
+    private static final class TraceKey {
+
+        private final Object[] parts;
+        private final int hash;
+
+        private TraceKey(List<Throwable> chain) {
+            this.parts = new Object[chain.size() * 3];
+            for (var i = 0; i < chain.size(); i++) {
+                var throwable = chain.get(i);
+                parts[i * 3] = throwable.getClass().getName();
+                parts[i * 3 + 1] = throwable.getMessage();
+                parts[i * 3 + 2] = throwable.getStackTrace();
+            }
+            this.hash = Arrays.deepHashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TraceKey key && hash == key.hash && Arrays.deepEquals(parts, key.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Output {
+
+        private final StringBuilder builder = new StringBuilder(1024);
+        private final int maxBytes;
+        private int bytes;
+        private boolean full;
+
+        private Output(int maxBytes) {
+            this.maxBytes = maxBytes - TRUNCATED.length();
+        }
+
+        private Output append(Object value) {
+            if (full) return this;
+            var text = String.valueOf(value);
+            var length = utf8Length(text);
+            if (bytes + length > maxBytes) {
+                full = true;
+                builder.append(TRUNCATED);
+                return this;
+            }
+            bytes += length;
+            builder.append(text);
+            return this;
+        }
+
+        private static int utf8Length(String text) {
+            var length = text.length();
+            for (var i = 0; i < text.length(); i++) {
+                var c = text.charAt(i);
+                if (c >= 0x80) length += c >= 0x800 && !Character.isSurrogate(c) ? 2 : 1;
+            }
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.ketoru.springframework.errors.throttle;
+
+import com.ketoru.springframework.errors.LoadSheddingFilter;
+import com.ketoru.springframework.errors.OverloadException;
+import com.ketoru.springframework.errors.OverloadResponses;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the handled errors of each client over a sliding window and rejects its requests for {@code retry-after} once
+ * it gets {@code threshold} errors within the window. Recorded by the exception handler, the rejection is a
+ * {@link LoadSheddingFilter.LoadShedder} sending the preallocated 429 of {@link OverloadResponses}.
+ * <p>
+ * Clients live in a fixed size table updated with compare and set, each one can be in two adjacent slots and replaces
+ * the least recently seen of them, keeping the rejected clients. The window is a ring of buckets packing their tick and
+ * count in one {@code long}, as in {@link com.ketoru.springframework.errors.storm.ErrorStormBreaker}. There is no lock,
+ * and no allocation besides one entry per client.
+ * <p>
+ * Client keys can be secrets such as API keys, they are logged as the start of their SHA-256.
+ */
+@Log4j2
+public class ClientErrorThrottle implements LoadSheddingFilter.LoadShedder {
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int shift;
+    private final int threshold;
+    private final int buckets;
+    private final long bucketNanos;
+    private final long retryAfterNanos;
+    private final Duration window;
+    private final boolean[] statuses = new boolean[600];
+    private final ClientKeyResolver keyResolver;
+    private final LongSupplier clock;
+    private final long origin;
+
+    public ClientErrorThrottle(ErrorsProperties.ClientThrottle properties, ClientKeyResolver keyResolver) {
+        this(properties, keyResolver, System::nanoTime);
+    }
+
+    /**
+     * @param clock nanoseconds, as {@link System#nanoTime()}
+     */
+    public ClientErrorThrottle(ErrorsProperties.ClientThrottle properties, ClientKeyResolver keyResolver, LongSupplier clock) {
+        var size = Integer.highestOneBit(Math.max(properties.getTableSize(), 2) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.shift = 32 - Integer.numberOfTrailingZeros(size);
+        this.threshold = Math.max(properties.getThreshold(), 1);
+        this.buckets = Math.max(properties.getBuckets(), 1);
+        this.bucketNanos = Math.max(properties.getWindow().toNanos() / buckets, 1);
+        this.retryAfterNanos = properties.getRetryAfter().toNanos();
+        this.window = properties.getWindow();
+        for (var status : properties.getStatuses()) {
+            if (status != null && status >= 0 && status < statuses.length) statuses[status] = true;
+        }
+        this.keyResolver = keyResolver;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * Records a handled error of the client of the request, ignored unless its status is in
+     * {@code client-throttle.statuses}.
+     *
+     * @return whether the client is rejected
+     */
+    public boolean record(HttpServletRequest request, int status) {
+        if (status < 0 || status >= statuses.length || !statuses[status]) return false;
+        var key = keyResolver.resolve(request);
+        return key != null && record(key);
+    }
+
+    /**
+     * Records an error of the client.
+     *
+     * @return whether the client is rejected
+     */
+    public boolean record(String key) {
+        var now = clock.getAsLong() - origin;
+        var tick = now / bucketNanos + buckets;
+        var entry = entry(key, tick, now);
+        if (entry.lastTick != tick) entry.lastTick = tick;
+        var index = (int) (tick % buckets);
+        while (true) {
+            var bucket = entry.window.get(index);
+            var age = (int) tick - (int) (bucket >>> 32);
+            // recorded late, the bucket already belongs to a later tick
+            if (age < 0) break;
+            if (entry.window.compareAndSet(index, bucket, age == 0 ? bucket + 1 : ((long) (int) tick << 32) + 1)) break;
+        }
+
+        var blockedUntil = entry.blockedUntil;
+        if (blockedUntil > now) return true;
+        var errors = entry.errors(tick);
+        if (errors < threshold) return false;
+        entry.blockedUntil = now + retryAfterNanos;
+        log.warn("Rejecting client {} for {} after {} errors in {}", fingerprint(key), Duration.ofNanos(retryAfterNanos), errors, window);
+        return true;
+    }
+
+    /**
+     * @return how long the client is still rejected, {@link Duration#ZERO} when it is not
+     */
+    public Duration getRetryAfter(String key) {
+        var remaining = remainingNanos(key);
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @return a 429 whose {@code Retry-After} is the time left until the client is accepted again, {@code null} for the
+     * clients that are not rejected
+     */
+    @Nullable
+    @Override
+    public OverloadException shed(HttpServletRequest request, OverloadResponses responses) {
+        var key = keyResolver.resolve(request);
+        if (key == null) return null;
+        var remaining = remainingNanos(key);
+        return remaining > 0 ? responses.tooManyRequests(Duration.ofNanos(remaining)) : null;
+    }
+
+    private long remainingNanos(String key) {
+        var hash = key.hashCode();
+        var index = index(hash);
+        var entry = table.get(index);
+        if (entry == null || !entry.matches(key, hash)) entry = table.get(index ^ 1);
+        if (entry == null || !entry.matches(key, hash)) return 0;
+        return entry.blockedUntil - (clock.getAsLong() - origin);
+    }
+
+    private Entry entry(String key, long tick, long now) {
+        var hash = key.hashCode();
+        var first = index(hash);
+        var second = first ^ 1;
+        while (true) {
+            var a = table.get(first);
+            if (a != null && a.matches(key, hash)) return a;
+            var b = table.get(second);
+            if (b != null && b.matches(key, hash)) return b;
+
+            var slot = a == null ? first : b == null ? second : rank(a, now) <= rank(b, now) ? first : second;
+            var created = new Entry(key, hash, buckets, tick);
+            if (table.compareAndSet(slot, slot == first ? a : b, created)) return created;
+        }
+    }
+
+    /**
+     * @return the first 8 bytes of the SHA-256 of the key, in hex
+     */
+    static String fingerprint(String key) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Rejected clients are evicted last, then the least recently seen first.
+     */
+    private static long rank(Entry entry, long now) {
+        return entry.blockedUntil > now ? Long.MAX_VALUE : entry.lastTick;
+    }
+
+    /**
+     * Fibonacci hashing, the hash codes of similar keys such as addresses of the same network are close.
+     */
+    private int index(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final int hash;
+        /**
+         * Per bucket, the low 32 bits of its tick then its count.
+         */
+        private final AtomicLongArray window;
+        private volatile long lastTick;
+        /**
+         * Nanoseconds since the throttle origin, {@code 0} for never rejected.
+         */
+        private volatile long blockedUntil;
+
+        private Entry(String key, int hash, int buckets, long tick) {
+            this.key = key;
+            this.hash = hash;
+            this.window = new AtomicLongArray(buckets);
+            this.lastTick = tick;
+        }
+
+        private boolean matches(String key, int hash) {
+            return this.hash == hash && this.key.equals(key);
+        }
+
+        /**
+         * Errors over the window, the current bucket included.
+         */
+        private long errors(long tick) {
+            var total = 0L;
+            for (var i = 0; i < window.length(); i++) {
+                var bucket = window.get(i);
+                var age = (int) tick - (int) (bucket >>> 32);
+                if (age >= 0 && age < window.length()) total += bucket & 0xFFFFFFFFL;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ketoru.springframework.errors.throttle;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+
+/**
+ * Identifies the client of a request for {@link ClientErrorThrottle}. Declare a bean to replace the one configured with
+ * {@code client-throttle.key}.
+ */
+@FunctionalInterface
+public interface ClientKeyResolver {
+
+    enum Source {
+        /**
+         * The address of the client as seen by the server, behind a proxy see {@code server.forward-headers-strategy}.
+         */
+        REMOTE_ADDRESS,
+        /**
+         * The {@code client-throttle.key-header} request header, such as an API key.
+         */
+        HEADER,
+        /**
+         * The name of the authenticated user.
+         */
+        PRINCIPAL
+    }
+
+    /**
+     * @return the client key, {@code null} for requests that are not throttled
+     */
+    @Nullable
+    String resolve(HttpServletRequest request);
+
+    /**
+     * Falls back to the remote address for requests without header or principal.
+     */
+    static ClientKeyResolver of(ErrorsProperties.ClientThrottle properties) {
+        return switch (properties.getKey()) {
+            case REMOTE_ADDRESS -> HttpServletRequest::getRemoteAddr;
+            case HEADER -> {
+                var header = properties.getKeyHeader();
+                yield request -> {
+                    var value = request.getHeader(header);
+                    return value != null ? value : request.getRemoteAddr();
+                };
+            }
+            case PRINCIPAL -> request -> {
+                var principal = request.getUserPrincipal();
+                return principal != null ? principal.getName() : request.getRemoteAddr();
+            };
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.ketoru.springframework.errors.events;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorEventPipelineTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ErrorEventPipeline pipeline;
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (pipeline != null && pipeline.isRunning()) pipeline.stop();
+    }
+
+    @Test
+    void deliversEveryEventInOrderOfEachPublisher() throws Exception {
+        var threads = 4;
+        var events = 5000;
+        var first = new CopyOnWriteArrayList<ErrorEvent>();
+        var second = new CopyOnWriteArrayList<ErrorEvent>();
+        pipeline = pipeline(properties(1024, ErrorEventPipeline.OverflowPolicy.BLOCK), first::add, second::add);
+        pipeline.start();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var start = new CountDownLatch(1);
+            var tasks = new ArrayList<Future<?>>();
+            for (var t = 0; t < threads; t++) {
+                var thread = t;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < events; i++) assertTrue(pipeline.publish(event(thread, i)));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) task.get();
+        }
+        pipeline.stop();
+
+        assertEquals(threads * events, first.size());
+        assertEquals(first, second);
+        var next = new long[threads];
+        for (var event : first) assertEquals(next[event.status()]++, event.timestamp());
+        assertEquals(0, pipeline.getDroppedEvents());
+    }
+
+    @Test
+    void dropsWhenFull() throws Exception {
+        var delivered = new CopyOnWriteArrayList<ErrorEvent>();
+        var blocked = new CountDownLatch(1);
+        pipeline = pipeline(properties(4, ErrorEventPipeline.OverflowPolicy.DROP), event -> {
+            blocked.countDown();
+            await(release);
+            delivered.add(event);
+        });
+        pipeline.start();
+        assertTrue(pipeline.publish(event(0, 0)));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for (var i = 1; i <= 4; i++) assertTrue(pipeline.publish(event(0, i)));
+        assertFalse(pipeline.publish(event(0, 5)));
+        assertEquals(4, pipeline.getQueuedEvents());
+        assertEquals(1, pipeline.getDroppedEvents());
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(5, delivered.size());
+    }
+
+    @Test
+    void blocksUntilRoomUnlessTryPublish() throws Exception {
+        var blocked = new CountDownLatch(1);
+        pipeline = pipeline(properties(1, ErrorEventPipeline.OverflowPolicy.BLOCK), event -> {
+            blocked.countDown();
+            await(release);
+        });
+        pipeline.start();
+        pipeline.publish(event(0, 0));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        pipeline.publish(event(0, 1));
+
+        assertFalse(pipeline.tryPublish(event(0, 2)));
+        var waiting = CompletableFuture.supplyAsync(() -> pipeline.publish(event(0, 3)));
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+        release.countDown();
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void drainsOnStopThenDeliversOnCallingThread() {
+        var delivered = new CopyOnWriteArrayList<String>();
+        pipeline = pipeline(properties(1024, ErrorEventPipeline.OverflowPolicy.DROP), event -> delivered.add(Thread.currentThread().getName()));
+        pipeline.start();
+        for (var i = 0; i < 100; i++) pipeline.publish(event(0, i));
+        pipeline.stop();
+
+        assertEquals(100, delivered.size());
+        assertTrue(delivered.stream().allMatch("error-events"::equals));
+        pipeline.publish(event(0, 100));
+        assertEquals(Thread.currentThread().getName(), delivered.getLast());
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        var delivered = new CopyOnWriteArrayList<ErrorEvent>();
+        pipeline = pipeline(properties(1024, ErrorEventPipeline.OverflowPolicy.DROP), event -> {
+            throw new IllegalStateException("listener");
+        }, delivered::add);
+        pipeline.start();
+        for (var i = 0; i < 10; i++) pipeline.publish(event(0, i));
+        pipeline.stop();
+
+        assertEquals(10, delivered.size());
+    }
+
+    private static ErrorEventPipeline pipeline(ErrorsProperties.Events properties, ErrorEventListener... listeners) {
+        return new ErrorEventPipeline(properties, List.of(listeners));
+    }
+
+    private static ErrorsProperties.Events properties(int capacity, ErrorEventPipeline.OverflowPolicy overflow) {
+        var properties = new ErrorsProperties.Events();
+        properties.setAsync(true);
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(16);
+        properties.setOverflow(overflow);
+        properties.setShutdownTimeout(Duration.ofSeconds(5));
+        return properties;
+    }
+
+    /**
+     * @param publisher sent as the status, the sequence number of the publisher as the timestamp
+     */
+    private static ErrorEvent event(int publisher, long sequence) {
+        return new ErrorEvent(new IllegalStateException(), publisher, null, "/orders", sequence);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ketoru.springframework.errors.journal;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void roundTrip() throws IOException {
+        try (var journal = journal(DataSize.ofMegabytes(1), 8, true)) {
+            journal.append(new IllegalStateException("boom"), 500, 1000);
+            journal.append(new IllegalArgumentException("bad"), 400, 2000);
+        }
+
+        var records = new ErrorJournalReader(directory, true).read(record -> true);
+        assertEquals(2, records.size());
+        assertEquals(new JournalRecord(1000, 500, IllegalStateException.class.getName(), records.get(0).fingerprint(), records.get(0).stackTrace()), records.get(0));
+        assertEquals(IllegalArgumentException.class.getName(), records.get(1).exception());
+        assertNotNull(records.get(0).stackTrace());
+        assertTrue(records.get(0).stackTrace().startsWith("java.lang.IllegalStateException: boom"));
+    }
+
+    @Test
+    void concurrentAppends() throws Exception {
+        var threads = 8;
+        var appends = 2000;
+        try (var journal = journal(DataSize.ofMegabytes(4), 8, false); var executor = Executors.newFixedThreadPool(threads)) {
+            var start = new CountDownLatch(1);
+            var tasks = new ArrayList<Future<?>>();
+            for (var t = 0; t < threads; t++) {
+                var thread = t;
+                var exception = thread % 2 == 0 ? new IllegalStateException() : new IllegalArgumentException();
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < appends; i++) journal.append(exception, 400 + thread, (long) thread * appends + i);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) task.get();
+        }
+
+        var records = new ErrorJournalReader(directory, false).read(record -> true);
+        assertEquals(threads * appends, records.size());
+        var timestamps = new boolean[threads * appends];
+        for (var record : records) {
+            var thread = record.status() - 400;
+            assertEquals(thread % 2 == 0 ? IllegalStateException.class.getName() : IllegalArgumentException.class.getName(), record.exception());
+            assertEquals(thread, record.timestamp() / appends);
+            timestamps[(int) record.timestamp()] = true;
+        }
+        for (var timestamp : timestamps) assertTrue(timestamp);
+    }
+
+    @Test
+    void rotatesAtCapacity() throws IOException {
+        var appends = 1000;
+        try (var journal = journal(DataSize.ofBytes(SEGMENT_SIZE), 3, false)) {
+            for (var i = 0; i < appends; i++) journal.append(new IllegalStateException(), 500, i);
+        }
+
+        var segments = ErrorJournalReader.segments(directory);
+        assertEquals(3, segments.size());
+        var records = new ErrorJournalReader(directory, false).read(record -> true);
+        var perSegment = (SEGMENT_SIZE - ErrorJournal.HEADER_LENGTH - classLength(IllegalStateException.class)) / errorLength();
+        var deleted = (appends + perSegment - 1) / perSegment - 3;
+        assertEquals(appends - deleted * perSegment, records.size());
+        assertEquals((long) deleted * perSegment, records.getFirst().timestamp());
+        assertEquals(appends - 1, records.getLast().timestamp());
+        for (var i = 1; i < records.size(); i++) assertEquals(records.get(i - 1).timestamp() + 1, records.get(i).timestamp());
+    }
+
+    @Test
+    void skipsRecordAbandonedHalfWritten() throws IOException {
+        try (var journal = journal(DataSize.ofBytes(SEGMENT_SIZE), 8, false)) {
+            journal.append(new IllegalStateException(), 500, 1);
+            journal.append(new IllegalStateException(), 501, 2);
+            // the writer of the second record died before its type byte
+            try (var channel = FileChannel.open(ErrorJournalReader.segments(directory).getFirst(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+                buffer.put(ErrorJournal.HEADER_LENGTH + classLength(IllegalStateException.class) + errorLength() + 4, (byte) 0);
+            }
+            journal.append(new IllegalStateException(), 502, 3);
+        }
+
+        var records = new ErrorJournalReader(directory, false).read(record -> true);
+        assertEquals(List.of(500, 502), records.stream().map(JournalRecord::status).toList());
+    }
+
+    @Test
+    void classRecordCrossingSegmentBoundary() throws IOException {
+        // leaves room for the class record of the second exception but not for its error record
+        var free = SEGMENT_SIZE - ErrorJournal.HEADER_LENGTH - classLength(IllegalStateException.class);
+        var fillers = (free - classLength(IllegalArgumentException.class)) / errorLength();
+        assertTrue(free - fillers * errorLength() - classLength(IllegalArgumentException.class) < errorLength());
+        try (var journal = journal(DataSize.ofBytes(SEGMENT_SIZE), 8, false)) {
+            for (var i = 0; i < fillers; i++) journal.append(new IllegalStateException(), 500, i);
+            journal.append(new IllegalArgumentException(), 400, fillers);
+            journal.append(new IllegalStateException(), 500, fillers + 1);
+        }
+
+        assertEquals(2, ErrorJournalReader.segments(directory).size());
+        var second = new ArrayList<JournalRecord>();
+        new ErrorJournalReader(ErrorJournalReader.segments(directory).getLast(), false).forEach(second::add);
+        assertEquals(List.of(IllegalArgumentException.class.getName(), IllegalStateException.class.getName()), second.stream().map(JournalRecord::exception).toList());
+        assertEquals(fillers + 2, new ErrorJournalReader(directory, false).read(record -> true).size());
+    }
+
+    private ErrorJournal journal(DataSize segmentSize, int maxSegments, boolean stackTraces) {
+        var properties = new ErrorsProperties.Journal();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(segmentSize);
+        properties.setMaxSegments(maxSegments);
+        properties.setStackTraces(stackTraces);
+        return new ErrorJournal(properties, new ErrorsProperties.StackTrace(), 8);
+    }
+
+    private static int classLength(Class<?> exception) {
+        return ErrorJournal.align(ErrorJournal.CLASS_LENGTH + exception.getName().length());
+    }
+
+    private static int errorLength() {
+        return ErrorJournal.align(ErrorJournal.ERROR_LENGTH);
+    }
+}
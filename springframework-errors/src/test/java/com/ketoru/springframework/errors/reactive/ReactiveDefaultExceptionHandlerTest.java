@@ -0,0 +1,177 @@
+package com.ketoru.springframework.errors.reactive;
+
+import com.ketoru.springframework.errors.ApiError;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletionException;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(
+        classes = ReactiveDefaultExceptionHandlerTest.TestApplication.class,
+        webEnvironment = RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive"
+)
+class ReactiveDefaultExceptionHandlerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void apiErrorException() {
+        client.get().uri("/not-found").exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.title").isEqualTo("Not Found")
+                .jsonPath("$.instance").isEqualTo("/not-found");
+    }
+
+    @Test
+    void apiErrorExceptionDoesNotLeakInstanceBetweenRequests() {
+        client.get().uri("/not-found").exchange().expectStatus().isNotFound();
+        client.get().uri("/not-found-again").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.instance").isEqualTo("/not-found-again");
+    }
+
+    @Test
+    void apiErrorExceptionWithDetailAndExtension() {
+        client.get().uri("/bad-request").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Invalid order")
+                .jsonPath("$.orderId").isEqualTo("42");
+    }
+
+    @Test
+    void wrappedApiErrorException() {
+        client.get().uri("/wrapped").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void constraintViolationException() {
+        client.get().uri("/invalid").exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Validation Error")
+                .jsonPath("$.errors.length()").isEqualTo(2)
+                .jsonPath("$.errors[?(@.field == 'name')].messages[0]").isEqualTo("must not be blank")
+                .jsonPath("$.errors[?(@.field == 'quantity')].messages[0]").isEqualTo("must be greater than or equal to 1");
+    }
+
+    @Test
+    void badCredentialsException() {
+        client.get().uri("/bad-credentials").exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Invalid Credentials")
+                .jsonPath("$.detail").isEqualTo("The provided credentials are invalid.");
+    }
+
+    @Test
+    void lockedException() {
+        client.get().uri("/locked").exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody().jsonPath("$.status").isEqualTo(401);
+    }
+
+    @Test
+    void unexpectedException() {
+        client.get().uri("/unexpected").exchange()
+                .expectStatus().isEqualTo(500)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Internal Server Error")
+                .jsonPath("$.detail").isEqualTo("An unexpected error occurred, contact support")
+                .jsonPath("$.instance").isEqualTo("/unexpected");
+    }
+
+    @Test
+    void localizedMessages() {
+        client.get().uri("/bad-credentials").header("Accept-Language", "es").exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Credenciales Inválidas")
+                .jsonPath("$.detail").isEqualTo("Las credenciales proporcionadas son inválidas.");
+    }
+
+    @SpringBootApplication
+    static class TestApplication {
+
+        @RestControllerAdvice
+        static class ExceptionHandler extends ReactiveDefaultExceptionHandler {
+        }
+
+        @RestController
+        static class ErrorsController {
+
+            private final Validator validator;
+
+            ErrorsController(Validator validator) {
+                this.validator = validator;
+            }
+
+            @GetMapping("/not-found")
+            Mono<String> notFound() {
+                return Mono.error(ApiError.notFound());
+            }
+
+            @GetMapping("/not-found-again")
+            String notFoundAgain() {
+                throw ApiError.notFound();
+            }
+
+            @GetMapping("/bad-request")
+            Mono<String> badRequest() {
+                return Mono.error(ApiError.badRequest("Invalid order").extension("orderId", "42"));
+            }
+
+            @GetMapping("/wrapped")
+            String wrapped() {
+                throw new CompletionException(ApiError.notFound());
+            }
+
+            @GetMapping("/invalid")
+            String invalid() {
+                throw new ConstraintViolationException(validator.validate(new Order("", 0)));
+            }
+
+            @GetMapping("/bad-credentials")
+            Mono<String> badCredentials() {
+                return Mono.error(new BadCredentialsException("Bad credentials"));
+            }
+
+            @GetMapping("/locked")
+            String locked() {
+                throw new LockedException("Locked");
+            }
+
+            @GetMapping("/unexpected")
+            Mono<String> unexpected() {
+                return Mono.error(new IllegalStateException("Unexpected"));
+            }
+        }
+
+        record Order(@NotBlank String name, @Min(1) int quantity) {
+        }
+    }
+}
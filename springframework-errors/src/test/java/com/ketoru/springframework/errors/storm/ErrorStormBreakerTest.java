@@ -0,0 +1,106 @@
+package com.ketoru.springframework.errors.storm;
+
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorStormBreakerTest {
+
+    private static final long BUCKET = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ErrorStormBreaker breaker = new ErrorStormBreaker(properties(), clock::get);
+
+    @Test
+    void degradesAndRecovers() {
+        var transitions = new ArrayList<String>();
+        breaker.addListener((previous, current, errorRate) -> transitions.add(previous + ">" + current));
+
+        // 9 completed buckets of 100 errors, 100 errors/s
+        for (var second = 0; second < 9; second++) record(100);
+        assertTrue(breaker.isDegraded());
+        assertEquals(100, breaker.getErrorRate(), 0.001);
+
+        // still above 50 errors/s with the first buckets leaving the window
+        for (var second = 0; second < 4; second++) record(0);
+        assertTrue(breaker.isDegraded());
+        record(0);
+        assertFalse(breaker.isDegraded());
+        assertEquals(List.of("NORMAL>DEGRADED", "DEGRADED>NORMAL"), transitions);
+    }
+
+    @Test
+    void countsConcurrentRecords() throws Exception {
+        var threads = 8;
+        var records = 10_000;
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var start = new CountDownLatch(1);
+            var tasks = new ArrayList<Future<?>>();
+            for (var t = 0; t < threads; t++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < records; i++) breaker.record();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) task.get();
+        }
+        clock.addAndGet(BUCKET);
+
+        assertTrue(breaker.isDegraded());
+        assertEquals(threads * records / 9d, breaker.getErrorRate(), 0.001);
+    }
+
+    @Test
+    void restartsBucketsOfAPreviousLap() {
+        record(900);
+        // back on the same bucket after a whole window
+        clock.addAndGet(9 * BUCKET);
+        record(1);
+
+        assertFalse(breaker.isDegraded());
+        assertEquals(1 / 9d, breaker.getErrorRate(), 0.001);
+    }
+
+    @Test
+    void reportsDespiteFailingListener() {
+        var reported = new ArrayList<ErrorStormBreaker.State>();
+        breaker.addListener((previous, current, errorRate) -> {
+            throw new IllegalStateException("listener");
+        });
+        breaker.addListener((previous, current, errorRate) -> reported.add(current));
+
+        record(1000);
+        assertTrue(breaker.isDegraded());
+        assertEquals(List.of(ErrorStormBreaker.State.DEGRADED), reported);
+    }
+
+    /**
+     * Records {@code errors} in the current bucket, then completes it.
+     */
+    private void record(int errors) {
+        for (var i = 0; i < errors; i++) breaker.record();
+        clock.addAndGet(BUCKET);
+    }
+
+    private static ErrorsProperties.ErrorStorm properties() {
+        var properties = new ErrorsProperties.ErrorStorm();
+        properties.setThreshold(100);
+        properties.setRecoveryRatio(0.5);
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setBuckets(10);
+        return properties;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ketoru.springframework.errors.throttle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ketoru.springframework.errors.OverloadResponses;
+import com.ketoru.springframework.errors.config.ErrorsProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientErrorThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void rejectsClientForRetryAfter() {
+        var throttle = throttle(3, 4096);
+
+        assertFalse(throttle.record("client"));
+        assertFalse(throttle.record("client"));
+        assertTrue(throttle.record("client"));
+        assertEquals(Duration.ofSeconds(30), throttle.getRetryAfter("client"));
+        assertEquals(Duration.ZERO, throttle.getRetryAfter("other"));
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(Duration.ZERO, throttle.getRetryAfter("client"));
+        // the errors of the last minute are still counted
+        assertTrue(throttle.record("client"));
+        clock.addAndGet(Duration.ofSeconds(90).toNanos());
+        assertFalse(throttle.record("client"));
+    }
+
+    @Test
+    void forgetsErrorsLeavingTheWindow() {
+        var throttle = throttle(3, 4096);
+
+        throttle.record("client");
+        throttle.record("client");
+        clock.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertFalse(throttle.record("client"));
+        // back on the bucket of the first errors, restarted
+        assertFalse(throttle.record("client"));
+    }
+
+    @Test
+    void recordsOnlyConfiguredStatuses() {
+        var properties = properties(2, 4096);
+        var throttle = new ClientErrorThrottle(properties, ClientKeyResolver.of(properties), clock::get);
+        var responses = new OverloadResponses(new ErrorsProperties.Overload(), new ObjectMapper());
+        var request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.1");
+
+        assertFalse(throttle.record(request, 404));
+        assertFalse(throttle.record(request, 500));
+        assertFalse(throttle.record(request, 400));
+        assertNull(throttle.shed(request, responses));
+        assertTrue(throttle.record(request, 401));
+
+        var rejection = throttle.shed(request, responses);
+        assertNotNull(rejection);
+        assertEquals(429, rejection.getStatus());
+        assertEquals(30, rejection.getRetryAfterSeconds());
+    }
+
+    @Test
+    void countsConcurrentRecords() throws Exception {
+        var threads = 8;
+        var records = 1000;
+        var exact = throttle(threads * records, 4096);
+        var above = throttle(threads * records + 1, 4096);
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var start = new CountDownLatch(1);
+            var tasks = new ArrayList<Future<?>>();
+            for (var t = 0; t < threads; t++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < records; i++) {
+                        exact.record("client");
+                        above.record("client");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var task : tasks) task.get();
+        }
+
+        assertTrue(exact.getRetryAfter("client").isPositive());
+        assertEquals(Duration.ZERO, above.getRetryAfter("client"));
+    }
+
+    @Test
+    void evictsLeastRecentlySeenClientsBeforeRejectedOnes() {
+        // a single pair of slots
+        var throttle = throttle(2, 2);
+
+        throttle.record("rejected");
+        assertTrue(throttle.record("rejected"));
+        throttle.record("first");
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        throttle.record("second");
+
+        assertTrue(throttle.getRetryAfter("rejected").isPositive());
+        // the error of the evicted client is lost
+        assertFalse(throttle.record("first"));
+    }
+
+    @Test
+    void fingerprintDoesNotLogTheKey() {
+        var fingerprint = ClientErrorThrottle.fingerprint("secret-api-key");
+
+        assertEquals(16, fingerprint.length());
+        assertFalse(fingerprint.contains("secret"));
+        assertEquals(fingerprint, ClientErrorThrottle.fingerprint("secret-api-key"));
+    }
+
+    private ClientErrorThrottle throttle(int threshold, int tableSize) {
+        var properties = properties(threshold, tableSize);
+        return new ClientErrorThrottle(properties, ClientKeyResolver.of(properties), clock::get);
+    }
+
+    private static ErrorsProperties.ClientThrottle properties(int threshold, int tableSize) {
+        var properties = new ErrorsProperties.ClientThrottle();
+        properties.setThreshold(threshold);
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setBuckets(6);
+        properties.setRetryAfter(Duration.ofSeconds(30));
+        properties.setTableSize(tableSize);
+        return properties;
+    }
+}